@@ -0,0 +1,63 @@
+package com.ggomi.emotion_trash;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// 성능 측정용 스프링 컨텍스트
+// 기본은 웹 서버 없이 띄우고, 만료 스케줄러는 끈 채로 EMOTIONS 테이블에 rows 건을 넣어둔다.
+class EmotionBenchmarkContext {
+
+    // 검색/필터 조건이 골고루 걸리도록 주제 4가지, 10건 중 1건은 사용 안 함(USE_YN = 'N')
+    private static final String SEED_SQL = "INSERT INTO EMOTIONS (CONTENT, SUBJECT, USE_YN, REG_DTM) "
+        + "SELECT '오늘도 힘든 하루였다. 벤치마크 감정 ' || X, "
+        + "CASE MOD(X, 4) WHEN 0 THEN '기쁨' WHEN 1 THEN '슬픔' WHEN 2 THEN '평온' ELSE '허탈' END, "
+        + "CASE WHEN MOD(X, 10) = 0 THEN 'N' ELSE 'Y' END, "
+        + "DATEADD('MILLISECOND', -X, LOCALTIMESTAMP) "
+        + "FROM SYSTEM_RANGE(?, ?)";
+    // 한 트랜잭션에 넣을 건수 (천만 건을 한 번에 넣으면 언두 로그가 너무 커진다)
+    private static final int SEED_CHUNK = 100_000;
+
+    private EmotionBenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(int rows, boolean searchEnabled, boolean cacheEnabled) throws Exception {
+        return start(rows, WebApplicationType.NONE, "emotion.search.enabled=" + searchEnabled, "emotion.cache.enabled=" + cacheEnabled);
+    }
+
+    // 설정을 더해서 시작 (웹 서버를 띄울 때는 server.port=0 으로 빈 포트 사용)
+    static ConfigurableApplicationContext start(int rows, WebApplicationType webApplicationType, String... properties) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(EmotionTrashApplication.class)
+            .web(webApplicationType)
+            .properties(
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "emotion.expiry.enabled=false",
+                // 넣어둔 데이터가 캐시 만료 계산에서 이미 만료된 것으로 보이지 않도록 충분히 길게
+                "emotion.expiry.ttl-seconds=31536000")
+            .properties(properties)
+            .run();
+
+        seed(context.getBean(DataSource.class), rows);
+        // 기동 시에는 data.sql 의 데이터만 색인/집계되어 있으므로 다시 색인/집계
+        context.getBean(EmotionSearchIndex.class).rebuild();
+        context.getBean(EmotionStats.class).rebuild();
+        return context;
+    }
+
+    private static void seed(DataSource dataSource, int rows) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+            PreparedStatement preparedStatement = connection.prepareStatement(SEED_SQL)) {
+            for (long from = 1; from <= rows; from += SEED_CHUNK) {
+                preparedStatement.setLong(1, from);
+                preparedStatement.setLong(2, Math.min(rows, from + SEED_CHUNK - 1));
+                preparedStatement.executeUpdate();
+            }
+        }
+    }
+}
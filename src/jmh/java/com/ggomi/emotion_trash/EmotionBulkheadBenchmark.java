@@ -0,0 +1,89 @@
+package com.ggomi.emotion_trash;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// 검색 폭주 중 등록 응답 시간 측정 (웹 서버를 띄우고 실제 HTTP 로 요청)
+// 검색 스레드 16개가 LIKE 검색(검색 인덱스 끔)을 계속 보내는 동안 등록 스레드 1개의 응답 시간을 잰다.
+// bulkhead=true 면 검색은 자리(search)가 없을 때 503으로 바로 거절되고, 등록은 자기 자리(write)로 커넥션을 얻는다.
+// 결과의 storm:write 를 bulkhead=true/false 로 비교한다.
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Group)
+public class EmotionBulkheadBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean bulkhead;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest createRequest;
+    private HttpRequest searchRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = EmotionBenchmarkContext.start(rows, WebApplicationType.SERVLET,
+            "server.port=0",
+            "emotion.search.enabled=false",
+            "emotion.bulkhead.enabled=" + bulkhead,
+            // 검색 스레드 수보다 작은 풀로 폭주 상황을 만든다.
+            "spring.datasource.hikari.maximum-pool-size=12",
+            "spring.datasource.hikari.minimum-idle=12",
+            "emotion.bulkhead.search.permits=6",
+            "emotion.bulkhead.point.permits=2",
+            "emotion.bulkhead.write.permits=4");
+
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        createRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/emotions"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"content\":\"검색 폭주 중 등록\",\"subject\":\"슬픔\"}"))
+            .build();
+        searchRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/emotions?content=" + URLEncoder.encode("감정 77", StandardCharsets.UTF_8) + "&sort=REG_DTM,DESC"))
+            .GET()
+            .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(1)
+    public int write() throws Exception {
+        return client.send(createRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(16)
+    public int search() throws Exception {
+        return client.send(searchRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
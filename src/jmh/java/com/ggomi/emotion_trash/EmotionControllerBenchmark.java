@@ -0,0 +1,176 @@
+package com.ggomi.emotion_trash;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// 컨트롤러 주요 기능 성능 측정 (HTTP 없이 컨트롤러 메서드를 바로 호출)
+// SQL 생성, 행 변환, JSON 직렬화까지 포함해서 측정하고, 결과는 build/results/jmh/results.json 에 남는다.
+// 데이터 건수 : -PjmhRows=10000,1000000,10000000 (jar 로 실행 시 -p rows=...)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class EmotionControllerBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+    // 일괄 등록 비교 시 한 번에 등록하는 건수
+    private static final int BULK_SIZE = 100;
+    private static final Map<String, String> CREATE_ITEM = Map.of("content", "오늘도 힘든 하루였다. 벤치마크 등록", "subject", "슬픔");
+
+    @Param({"10000"})
+    public int rows;
+
+    // 상세 조회 캐시 사용 여부
+    @Param({"false"})
+    public boolean cache;
+
+    private ConfigurableApplicationContext context;
+    private EmotionTrashContorller controller;
+    private ObjectMapper objectMapper;
+    private DataSource dataSource;
+    private int deepPage;
+    private List<Map<String, String>> bulkItems;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // 검색 인덱스 vs LIKE 비교는 EmotionSearchBenchmark
+        context = EmotionBenchmarkContext.start(rows, true, cache);
+        controller = context.getBean(EmotionTrashContorller.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        dataSource = context.getBean(DataSource.class);
+        // 마지막 근처 페이지 (OFFSET 이 가장 큰 경우)
+        deepPage = Math.max(1, rows / PAGE_SIZE - 1);
+
+        bulkItems = new ArrayList<>();
+        for (int i = 0; i < BULK_SIZE; i++) {
+            bulkItems.add(CREATE_ITEM);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, rows + 1);
+    }
+
+    // 응답 본문을 JSON으로 직렬화 (스프링 MVC 가 응답을 쓰는 것과 같은 ObjectMapper 사용)
+    private byte[] serialize(ResponseEntity<?> response) throws Exception {
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+
+    // 목록 조회는 응답에 바로 쓰므로 응답에 쓰인 내용을 반환
+    private byte[] findAll(String content, String subject, String useYn, int page, String sort, String cursor) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ResponseEntity<?> result = controller.findAll(content, subject, useYn, page, PAGE_SIZE, sort, cursor, response);
+        return result != null ? serialize(result) : response.getContentAsByteArray();
+    }
+
+    @Benchmark
+    public byte[] create() throws Exception {
+        return serialize(controller.create(CREATE_ITEM));
+    }
+
+    // 일괄 등록 vs 단건 등록 반복 (같은 BULK_SIZE 건, 결과는 한 건당 시간)
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public byte[] createBulk() throws Exception {
+        return serialize(controller.createBulk(bulkItems));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public byte[] createSingleRepeated() throws Exception {
+        byte[] last = null;
+        for (int i = 0; i < BULK_SIZE; i++) {
+            last = serialize(controller.create(CREATE_ITEM));
+        }
+        return last;
+    }
+
+    @Benchmark
+    public byte[] findById() throws Exception {
+        return serialize(controller.findById(randomId()));
+    }
+
+    @Benchmark
+    public byte[] findAllFirstPage() throws Exception {
+        return findAll(null, null, null, 1, null, null);
+    }
+
+    @Benchmark
+    public byte[] findAllDeepPage() throws Exception {
+        return findAll(null, null, null, deepPage, null, null);
+    }
+
+    @Benchmark
+    public byte[] findAllCursorFirstPage() throws Exception {
+        return findAll(null, null, null, 1, null, "");
+    }
+
+    @Benchmark
+    public byte[] findAllSortedByRegDtm() throws Exception {
+        return findAll(null, null, null, 1, "REG_DTM,DESC", null);
+    }
+
+    @Benchmark
+    public byte[] findAllSubjectFilter() throws Exception {
+        return findAll(null, "기쁨", "Y", 1, null, null);
+    }
+
+    @Benchmark
+    public byte[] patchById() throws Exception {
+        return serialize(controller.patchById(Map.of("useYn", "Y"), randomId()));
+    }
+
+    @Benchmark
+    public byte[] delete(DeleteTarget target) throws Exception {
+        return serialize(controller.delete(target.id));
+    }
+
+    // 삭제할 행을 호출마다 새로 넣어둔다. (넣는 시간은 측정에서 빠진다)
+    @State(Scope.Thread)
+    public static class DeleteTarget {
+        private static final String INSERT_SQL = "INSERT INTO EMOTIONS (CONTENT, SUBJECT) VALUES ('삭제할 감정', '슬픔')";
+
+        long id;
+
+        @Setup(Level.Invocation)
+        public void insert(EmotionControllerBenchmark benchmark) throws Exception {
+            try (Connection connection = benchmark.dataSource.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(INSERT_SQL, new String[] {"ID"})) {
+                preparedStatement.executeUpdate();
+                try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                    generatedKeys.next();
+                    id = generatedKeys.getLong(1);
+                }
+            }
+        }
+    }
+}
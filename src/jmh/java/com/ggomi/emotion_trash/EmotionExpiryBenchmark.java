@@ -0,0 +1,119 @@
+package com.ggomi.emotion_trash;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// 만료 비용 비교 : 행 단위 물리 삭제(hard) vs 버킷 비우기(bucketed)
+// 측정 전마다 만료된 감정 rows 건을 만들어 두고, 만료 스케줄러 한 번 실행(expire)으로 모두 정리하는 시간을 잰다.
+// bucketed 는 1초 구간 버킷에 넣은 뒤 다음 버킷을 열고 만료 시간(1초)을 기다려서 버킷 전체가 만료된 상태를 만든다.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class EmotionExpiryBenchmark {
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM EMOTIONS";
+    // 버킷 시간 구간/만료 시간이 지나도록 기다리는 시간
+    private static final long WAIT_MILLIS = 1100;
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    @Param({"hard", "bucketed"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private DataSource dataSource;
+    private EmotionBuckets buckets;
+    private EmotionTrashScheduler scheduler;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        boolean bucketed = mode.equals("bucketed");
+        context = EmotionBenchmarkContext.start(0, WebApplicationType.NONE,
+            "emotion.search.enabled=false",
+            "emotion.expiry.enabled=true",
+            // 측정 중에 스케줄러가 따로 돌지 않도록 충분히 길게
+            "emotion.expiry.fixed-delay=3600000",
+            "emotion.expiry.mode=hard",
+            "emotion.expiry.ttl-seconds=1",
+            "emotion.expiry.max-batches-per-run=1000000",
+            "emotion.storage.mode=" + (bucketed ? "bucketed" : "table"),
+            "emotion.storage.bucket-seconds=1",
+            "spring.sql.init.schema-locations=classpath:" + (bucketed ? "schema-bucketed.sql" : "schema.sql"),
+            // 버킷 테이블은 기동 시 EmotionBuckets 가 만들므로 예시 데이터도 그 다음에 넣는다.
+            "spring.sql.init.data-locations=" + (bucketed ? "" : "classpath:data.sql"),
+            "emotion.storage.data-locations=" + (bucketed ? "classpath:data-bucketed.sql" : ""));
+        dataSource = context.getBean(DataSource.class);
+        buckets = context.getBean(EmotionBuckets.class);
+        scheduler = context.getBean(EmotionTrashScheduler.class);
+
+        // 예시 데이터까지 정리해 두고 시작
+        Thread.sleep(WAIT_MILLIS);
+        scheduler.expire();
+        Thread.sleep(WAIT_MILLIS);
+        scheduler.expire();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareExpired() throws Exception {
+        String table = buckets.acquireInsertTable();
+        try (Connection connection = dataSource.getConnection();
+            PreparedStatement preparedStatement = connection.prepareStatement("INSERT INTO " + table + " (CONTENT, SUBJECT, REG_DTM) "
+                + "SELECT '만료될 감정 ' || X, '슬픔', DATEADD('SECOND', -10, LOCALTIMESTAMP) FROM SYSTEM_RANGE(1, ?)")) {
+            preparedStatement.setInt(1, rows);
+            preparedStatement.executeUpdate();
+        } finally {
+            buckets.releaseInsertTable();
+        }
+
+        if (buckets.isEnabled()) {
+            // 다음 버킷을 연 뒤 만료 시간이 지나야 넣어둔 버킷 전체가 만료된다.
+            Thread.sleep(WAIT_MILLIS);
+            buckets.rotate();
+            Thread.sleep(WAIT_MILLIS);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void verifyPurged() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+            PreparedStatement preparedStatement = connection.prepareStatement(COUNT_SQL);
+            ResultSet resultSet = preparedStatement.executeQuery()) {
+            resultSet.next();
+            if (resultSet.getLong(1) != 0) {
+                throw new IllegalStateException("만료 데이터가 남아 있습니다::" + resultSet.getLong(1));
+            }
+        }
+    }
+
+    @Benchmark
+    public void expire() {
+        scheduler.expire();
+    }
+}
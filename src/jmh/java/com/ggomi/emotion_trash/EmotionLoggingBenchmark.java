@@ -0,0 +1,108 @@
+package com.ggomi.emotion_trash;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+
+// 요청 로그 한 건을 남기는 데 요청 스레드가 쓰는 시간 측정
+// sync : 개발 프로필(파일에 바로 씀), async : prod 프로필(AsyncAppender), async-limited : prod 프로필 + 로그 수 제한
+// payload 로 감정 내용을 그대로 남길 때(full, 최대 1000자)와 글자 수만 남길 때(summary)를 함께 비교한다.
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+public class EmotionLoggingBenchmark {
+
+    private static final Map<String, Object> SUMMARY = Map.of("content", "(1000자)", "subject", "슬픔");
+    private static final Map<String, Object> FULL = Map.of("content", "오늘도 힘든 하루였다. ".repeat(77).substring(0, 1000), "subject", "슬픔");
+
+    @Param({"sync", "async", "async-limited"})
+    public String appender;
+
+    // 요청 로그에 남기는 값 (summary : 글자 수만, full : 감정 내용 그대로)
+    @Param({"summary", "full"})
+    public String payload;
+
+    private LoggerContext loggerContext;
+    private Logger logger;
+    private Path logFile;
+    private Map<String, Object> params;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        logFile = Files.createTempFile("emotion-benchmark", ".log");
+        params = payload.equals("full") ? FULL : SUMMARY;
+        loggerContext = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(loggerContext);
+        fileAppender.setName("FILE");
+        fileAppender.setFile(logFile.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> target = fileAppender;
+        if (appender.startsWith("async")) {
+            // logback-spring.xml 의 prod 프로필과 같은 설정
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(loggerContext);
+            asyncAppender.setName("ASYNC_FILE");
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setDiscardingThreshold(1638);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            target = asyncAppender;
+        }
+        if (appender.equals("async-limited")) {
+            EmotionLogRateLimitFilter filter = new EmotionLogRateLimitFilter();
+            filter.setContext(loggerContext);
+            filter.setLoggerPrefix("com.ggomi.emotion_trash");
+            filter.setPermitsPerSecond(200);
+            filter.start();
+            loggerContext.addTurboFilter(filter);
+        }
+
+        logger = loggerContext.getLogger(EmotionTrashContorller.class);
+        logger.setLevel(ch.qos.logback.classic.Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(target);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        loggerContext.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void requestLog() {
+        logger.info("감정 정보 등록 요청 수신::{}", params);
+    }
+}
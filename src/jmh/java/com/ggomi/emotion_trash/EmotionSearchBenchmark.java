@@ -0,0 +1,79 @@
+package com.ggomi.emotion_trash;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// 검색 비용 비교 : 검색 인덱스(search=true, n-gram 역색인) vs LIKE '%검색어%'(search=false, 테이블 전체를 읽음)
+// 같은 검색어로 검색 점수 순, 아이디 순, 등록일시 순 목록 조회와 주제 부분 검색을 측정한다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class EmotionSearchBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"10000"})
+    public int rows;
+
+    // 검색 인덱스 사용 여부 (false면 LIKE 검색)
+    @Param({"true", "false"})
+    public boolean search;
+
+    private ConfigurableApplicationContext context;
+    private EmotionTrashContorller controller;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = EmotionBenchmarkContext.start(rows, search, false);
+        controller = context.getBean(EmotionTrashContorller.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 목록 조회는 응답에 바로 쓰므로 응답에 쓰인 내용을 반환
+    private byte[] findAll(String content, String subject, String useYn, String sort) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ResponseEntity<?> result = controller.findAll(content, subject, useYn, 1, PAGE_SIZE, sort, null, response);
+        return result != null ? objectMapper.writeValueAsBytes(result.getBody()) : response.getContentAsByteArray();
+    }
+
+    @Benchmark
+    public byte[] contentSearch() throws Exception {
+        return findAll("감정 77", null, null, null);
+    }
+
+    @Benchmark
+    public byte[] contentSearchSortedById() throws Exception {
+        return findAll("감정 77", null, "Y", "ID,DESC");
+    }
+
+    @Benchmark
+    public byte[] contentSearchSortedByRegDtm() throws Exception {
+        return findAll("감정 77", null, null, "REG_DTM,DESC");
+    }
+
+    @Benchmark
+    public byte[] subjectSearch() throws Exception {
+        return findAll(null, "슬", "Y", null);
+    }
+}
@@ -0,0 +1,114 @@
+package com.ggomi.emotion_trash;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// 기동 시간과 기동 직후 사용량 비교 : 메모리 DB(default) vs 파일 DB(prod)
+// 측정마다 웹 서버까지 모두 띄우는 시간을 재고, 띄운 뒤의 힙 사용량(GC 후)과 DB 파일 크기를 함께 남긴다.
+// prod 는 매번 빈 임시 디렉터리에 파일 DB를 새로 만들어서 schema.sql 부터 실행한다.
+// prod-restart 는 측정 전에 한 번 띄워서 rows 건을 넣고 닫은 파일 DB를 다시 여는 시간이다. (검색 색인/통계를 기존 행으로 다시 만드는 시간 포함)
+// 첫 측정은 클래스 로딩/JIT 이 되지 않은 상태(콜드 스타트)이고, 이후는 같은 JVM 에서 다시 띄운 시간이다.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class EmotionStartupBenchmark {
+
+    private static final String SEED_SQL = "INSERT INTO EMOTIONS (CONTENT, SUBJECT) "
+        + "SELECT '재시작 전에 남긴 감정 ' || X, CASE WHEN MOD(X, 2) = 0 THEN '기쁨' ELSE '슬픔' END FROM SYSTEM_RANGE(1, ?)";
+
+    @Param({"default", "prod", "prod-restart"})
+    public String profile;
+
+    // prod-restart 에서 재시작 전에 넣어둘 건수
+    @Param({"100000"})
+    public int rows;
+
+    // 기동 직후 사용량 (결과에 보조 지표로 함께 나온다)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public long heapUsedKb;
+        public long diskUsedKb;
+    }
+
+    private Path dataDirectory;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Invocation)
+    public void prepare() throws IOException, SQLException {
+        dataDirectory = Files.createTempDirectory("emotion-startup");
+        if (profile.equals("prod-restart")) {
+            try (ConfigurableApplicationContext seeded = run()) {
+                try (Connection connection = seeded.getBean(DataSource.class).getConnection();
+                    PreparedStatement preparedStatement = connection.prepareStatement(SEED_SQL)) {
+                    preparedStatement.setInt(1, rows);
+                    preparedStatement.executeUpdate();
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void shutdown() throws IOException {
+        context.close();
+        try (Stream<Path> paths = Files.walk(dataDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext start(Footprint footprint) throws IOException {
+        context = run();
+
+        System.gc();
+        footprint.heapUsedKb = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / 1024;
+        try (Stream<Path> paths = Files.walk(dataDirectory)) {
+            footprint.diskUsedKb = paths.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum() / 1024;
+        }
+        return context;
+    }
+
+    private ConfigurableApplicationContext run() {
+        boolean prod = profile.startsWith("prod");
+        return new SpringApplicationBuilder(EmotionTrashApplication.class)
+            .profiles(prod ? new String[] {"prod"} : new String[0])
+            .properties(
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "server.port=0",
+                // prod 파일 DB 와 비동기 등록 보관 파일은 임시 디렉터리에 만든다.
+                "spring.datasource.url=" + (prod
+                    ? "jdbc:h2:file:" + dataDirectory.resolve("emotion_trash") + ";CACHE_SIZE=65536;WRITE_DELAY=500;DB_CLOSE_ON_EXIT=FALSE;QUERY_CACHE_SIZE=64"
+                    : "jdbc:h2:mem:emotion_startup_" + dataDirectory.getFileName() + ";QUERY_CACHE_SIZE=64"),
+                "emotion.ingest.spill-file=" + dataDirectory.resolve("ingest-spill.ndjson"))
+            .run();
+    }
+}
@@ -0,0 +1,86 @@
+package com.ggomi.emotion_trash;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// 요청 처리 스레드 비교 : 플랫폼 스레드(Tomcat 스레드 풀) vs 가상 스레드 (웹 서버를 띄우고 실제 HTTP 로 요청)
+// 동시 요청 400개(상세 조회 200 + 목록 조회 200)를 계속 보내면서 처리량과 응답 시간 분포를 잰다.
+// 플랫폼 스레드는 Tomcat 기본 최대 200개라 나머지 요청은 연결 대기열에서 기다리고, 가상 스레드는 요청마다 스레드를 만든다.
+// 두 경우 모두 커넥션 풀 크기는 같으므로 DB를 기다리는 방식만 다르다. (bulkhead 는 꺼서 503 없이 모두 처리)
+// 결과의 mixed:point, mixed:list 를 virtual=true/false 로 비교한다.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Group)
+public class EmotionVirtualThreadBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"false", "true"})
+    public boolean virtual;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest pointRequest;
+    private HttpRequest listRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = EmotionBenchmarkContext.start(rows, WebApplicationType.SERVLET,
+            "server.port=0",
+            "spring.threads.virtual.enabled=" + virtual,
+            "server.tomcat.threads.max=200",
+            "emotion.bulkhead.enabled=false",
+            // 캐시에서 바로 응답하지 않고 DB까지 가도록 끈다.
+            "emotion.cache.enabled=false",
+            "spring.datasource.hikari.maximum-pool-size=20",
+            "spring.datasource.hikari.minimum-idle=20");
+
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        pointRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/emotions/" + Math.max(1, rows / 2)))
+            .GET()
+            .build();
+        listRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/emotions?subject=%EC%8A%AC%ED%94%94&size=20"))
+            .GET()
+            .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(200)
+    public int point() throws Exception {
+        return client.send(pointRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(200)
+    public int list() throws Exception {
+        return client.send(listRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,50 @@
+package com.ggomi.emotion_trash;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+// 감정 테이블(EMOTIONS)의 한 행
+// 응답 JSON의 키는 기존과 같이 컬럼명(ID, CONTENT ...)을 그대로 사용한다.
+public record Emotion(
+    @JsonProperty("ID") long id,
+    @JsonProperty("CONTENT") String content,
+    @JsonProperty("SUBJECT") String subject,
+    @JsonProperty("USE_YN") String useYn,
+    @JsonProperty("REG_DTM") Timestamp regDtm,
+    @JsonProperty("MODI_DTM") Timestamp modiDtm
+) {
+
+    // SELECT 할 컬럼 (아래 from, writeJson 에서 컬럼 순번으로 읽는다)
+    public static final String COLUMNS = "ID, CONTENT, SUBJECT, USE_YN, REG_DTM, MODI_DTM";
+
+    // ResultSet의 현재 행을 Emotion으로 변환 (컬럼명 대신 순번으로 읽는다)
+    public static Emotion from(ResultSet resultSet) throws SQLException {
+        return new Emotion(
+            resultSet.getLong(1),
+            resultSet.getString(2),
+            resultSet.getString(3),
+            resultSet.getString(4),
+            resultSet.getTimestamp(5),
+            resultSet.getTimestamp(6));
+    }
+
+    // ResultSet의 현재 행을 객체를 만들지 않고 바로 JSON으로 쓴다. (목록 조회 스트리밍 용도)
+    // 일시 값은 ObjectMapper 설정을 그대로 따르도록 writeObject로 쓴다.
+    public static void writeJson(JsonGenerator generator, ResultSet resultSet) throws SQLException, IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("ID", resultSet.getLong(1));
+        generator.writeStringField("CONTENT", resultSet.getString(2));
+        generator.writeStringField("SUBJECT", resultSet.getString(3));
+        generator.writeStringField("USE_YN", resultSet.getString(4));
+        generator.writeFieldName("REG_DTM");
+        generator.writeObject(resultSet.getTimestamp(5));
+        generator.writeFieldName("MODI_DTM");
+        generator.writeObject(resultSet.getTimestamp(6));
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,11 @@
+package com.ggomi.emotion_trash;
+
+// 버킷 저장소에서 만료된 버킷을 통째로 비웠을 때 발행하는 이벤트 (커밋 이후 발행)
+// 행마다 이벤트를 보내지 않고 버킷에 담겼던 아이디 범위(fromId 이상 toId 이하)만 알린다.
+// 버킷은 오래된 순서로 비우므로 toId 이하의 아이디는 모두 지워진 상태이다.
+public record EmotionBucketPurgedEvent(long fromId, long toId) {
+
+    public boolean contains(long id) {
+        return id >= fromId && id <= toId;
+    }
+}
@@ -0,0 +1,355 @@
+package com.ggomi.emotion_trash;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+// 시간 구간(버킷)별 감정 저장소
+// emotion.storage.mode=bucketed 면 감정을 EMOTIONS_B0 ~ EMOTIONS_B7 테이블에 돌아가며 나눠 담는다.
+// 시퀀스와 버킷 목록은 schema-bucketed.sql 로 만들고, 버킷 테이블과 조회용 뷰는 기동 시 SLOTS 개수만큼 여기서 만든다.
+// bucket-seconds 마다 새 버킷을 열고, 다음 버킷이 열린 시각에서 만료 시간이 지난 버킷은 행 단위 DELETE 대신 TRUNCATE 로 한 번에 비운다.
+// 아이디는 시퀀스로 늘어나기만 하므로 버킷마다 첫 아이디를 기억해 두면 아이디만으로 어느 테이블에 있는지 알 수 있다.
+// EMOTIONS 는 모든 버킷을 UNION ALL 로 묶은 조회용 뷰가 되어 통계/검색 색인 등 전체를 읽는 곳은 그대로 동작한다.
+// emotion.storage.mode=table(기본값) 이면 테이블 이름은 항상 EMOTIONS 이다.
+@Component
+@DependsOnDatabaseInitialization
+public class EmotionBuckets {
+    // 로거 객체 생성
+    private Logger logger = LoggerFactory.getLogger(EmotionBuckets.class);
+
+    // 버킷 테이블 개수 (EMOTIONS_B0 ~ EMOTIONS_B7)
+    static final int SLOTS = 8;
+    static final String TABLE = "EMOTIONS";
+
+    private static final String SELECT_BUCKETS_SQL = "SELECT SLOT, FIRST_ID, OPENED_AT FROM EMOTION_BUCKETS ORDER BY FIRST_ID DESC";
+    private static final String INSERT_BUCKET_SQL = "INSERT INTO EMOTION_BUCKETS (SLOT, FIRST_ID, OPENED_AT) VALUES (?, ?, ?)";
+    private static final String DELETE_BUCKET_SQL = "DELETE FROM EMOTION_BUCKETS WHERE SLOT = ?";
+    // 새 버킷의 첫 아이디 (이 값 이후로 발급되는 아이디는 모두 새 버킷에 담긴다)
+    private static final String NEXT_ID_SQL = "SELECT NEXT VALUE FOR EMOTIONS_ID_SEQ";
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM %s";
+
+    // 버킷 테이블 (EMOTIONS 테이블과 같은 컬럼, 만료는 버킷 단위라 USE_YN + REG_DTM 인덱스는 두지 않는다)
+    private static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS %1$s ("
+        + "ID BIGINT DEFAULT (NEXT VALUE FOR EMOTIONS_ID_SEQ) PRIMARY KEY COMMENT '아이디', "
+        + "CONTENT TEXT NOT NULL COMMENT '내용', "
+        + "SUBJECT VARCHAR(100) COMMENT '주제', "
+        + "USE_YN CHAR(1) DEFAULT 'Y' COMMENT '사용여부', "
+        + "REG_DTM TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '등록 일시', "
+        + "MODI_DTM TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '수정 일시')";
+    private static final String[] CREATE_INDEX_SQLS = {
+        "CREATE INDEX IF NOT EXISTS IDX_%1$s_REG_DTM_ID ON %1$s (REG_DTM, ID)",
+        "CREATE INDEX IF NOT EXISTS IDX_%1$s_MODI_DTM_ID ON %1$s (MODI_DTM, ID)",
+        "CREATE INDEX IF NOT EXISTS IDX_%1$s_SUBJECT_ID ON %1$s (SUBJECT, ID)"
+    };
+    // 조회용 뷰 (전체 버킷을 UNION ALL 로 묶는다, 통계/검색 색인/정렬 조회에서 사용)
+    private static final String VIEW_SELECT_SQL = "SELECT ID, CONTENT, SUBJECT, USE_YN, REG_DTM, MODI_DTM FROM %s";
+
+    // 버킷 하나 (slot : 테이블 번호, firstId : 이 버킷에 담기는 가장 작은 아이디, openedAt : 버킷을 연 시각)
+    record Bucket(int slot, long firstId, Timestamp openedAt) {
+        String table() {
+            return tableName(slot);
+        }
+
+        static String tableName(int slot) {
+            return TABLE + "_B" + slot;
+        }
+    }
+
+    // DB 접근을 위한 객체
+    private final DataSource dataSource;
+
+    // 만료 이벤트 발행
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final boolean enabled; // 버킷 저장 사용 여부
+    private final long bucketMillis; // 버킷 하나의 시간 구간
+    private final long ttlMillis; // 만료 시간
+    private final String dataLocations; // 예시 데이터 스크립트 (쉼표로 구분, 비어 있으면 넣지 않음)
+
+    // 열려 있는 버킷 (최신 순, 바뀔 때마다 새 목록으로 교체)
+    private volatile List<Bucket> buckets = List.of();
+
+    // 새 버킷을 여는 동안 등록을 잠시 막는다.
+    // 아이디를 DB가 발급하는 등록(DEFAULT ID)은 INSERT 할 테이블을 고른 뒤 아이디가 정해지므로, 그 사이 버킷이 바뀌면 다른 버킷 범위의 아이디가 들어간다.
+    // 버킷 테이블을 비우는 동안에도 막아서, 비운 테이블(또는 그 슬롯을 다시 쓰는 새 버킷)에 만료된 행이 다시 들어가지 않도록 한다.
+    private final ReentrantReadWriteLock rotationLock = new ReentrantReadWriteLock();
+
+    // 새 버킷을 열 때마다 1씩 증가 (미리 받아둔 아이디를 버려야 하는지 판단할 때 사용)
+    private volatile long generation;
+
+    public EmotionBuckets(
+        DataSource dataSource,
+        ApplicationEventPublisher eventPublisher,
+        @Value("${emotion.storage.mode:table}") String mode,
+        @Value("${emotion.storage.bucket-seconds:60}") long bucketSeconds,
+        @Value("${emotion.expiry.ttl-seconds:300}") long ttlSeconds,
+        @Value("${emotion.storage.data-locations:}") String dataLocations
+    ) {
+        this.dataSource = dataSource;
+        this.eventPublisher = eventPublisher;
+        this.enabled = "bucketed".equalsIgnoreCase(mode);
+        this.bucketMillis = bucketSeconds * 1000;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.dataLocations = dataLocations;
+
+        // 쓰는 중인 버킷 + 만료 시간 동안 남겨둘 버킷 + 비우기를 기다리는 버킷
+        long required = (ttlSeconds + bucketSeconds - 1) / bucketSeconds + 2;
+        if (enabled && required > SLOTS) {
+            throw new IllegalStateException("버킷 테이블(" + SLOTS + "개)이 부족합니다. emotion.storage.bucket-seconds 를 " + ((ttlSeconds + SLOTS - 3) / (SLOTS - 2)) + " 이상으로 설정해 주세요.");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 기동 시 버킷 테이블을 만들고 열려 있는 버킷 목록을 읽는다. (파일 DB는 재시작 전 버킷을 그대로 이어서 사용)
+    // 검색 색인/통계는 EMOTIONS 뷰를 읽으므로 이 빈 다음에 만든다. (@DependsOn)
+    @PostConstruct
+    public void load() throws SQLException {
+        if (!enabled) {
+            return;
+        }
+        createTables();
+        populate();
+        reload();
+        if (buckets.isEmpty()) {
+            openBucket(0);
+        }
+        logger.info("버킷 저장소 시작::buckets={}, bucketMillis={}, ttlMillis={}", buckets, bucketMillis, ttlMillis);
+    }
+
+    // 아이디가 담긴 테이블 (이미 비운 버킷의 아이디면 가장 오래된 버킷 테이블, 조회 결과는 없다)
+    public String tableOf(long id) {
+        if (!enabled) {
+            return TABLE;
+        }
+        List<Bucket> current = buckets;
+        for (Bucket bucket : current) {
+            if (id >= bucket.firstId()) {
+                return bucket.table();
+            }
+        }
+        return current.get(current.size() - 1).table();
+    }
+
+    // 이미 비운 버킷 범위의 아이디인지 (가장 오래된 버킷의 첫 아이디보다 작으면 비운 버킷에 속한다)
+    // acquireInsertLock() 을 잡은 상태에서 확인해야 저장할 때까지 결과가 바뀌지 않는다.
+    public boolean isPurged(long id) {
+        if (!enabled) {
+            return false;
+        }
+        List<Bucket> current = buckets;
+        return id < current.get(current.size() - 1).firstId();
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    // 아이디 순서로 읽을 테이블 목록 (descending 이면 최신 버킷부터)
+    // 버킷끼리는 아이디 범위가 겹치지 않으므로 앞 버킷에서 필요한 만큼 다 읽으면 뒤 버킷은 읽지 않아도 된다.
+    public List<String> tablesInIdOrder(boolean descending) {
+        if (!enabled) {
+            return List.of(TABLE);
+        }
+        List<String> tables = new ArrayList<>();
+        for (Bucket bucket : buckets) {
+            tables.add(bucket.table());
+        }
+        return descending ? tables : tables.reversed();
+    }
+
+    // 등록할 테이블 (반드시 releaseInsertTable() 과 짝으로 호출, 그 사이에는 새 버킷을 열지 않는다)
+    public String acquireInsertTable() {
+        if (!enabled) {
+            return TABLE;
+        }
+        acquireInsertLock();
+        return buckets.get(0).table();
+    }
+
+    public void releaseInsertTable() {
+        releaseInsertLock();
+    }
+
+    // 등록하는 동안 새 버킷 열기/버킷 비우기를 막는다. (반드시 releaseInsertLock() 과 짝으로 호출)
+    // 아이디를 미리 받아두고 나중에 저장하는 비동기 등록에서 아이디/등록 시각을 정할 때와 저장할 때 사용한다.
+    public void acquireInsertLock() {
+        if (enabled) {
+            rotationLock.readLock().lock();
+        }
+    }
+
+    public void releaseInsertLock() {
+        if (enabled) {
+            rotationLock.readLock().unlock();
+        }
+    }
+
+    // 만료된 버킷을 비우고, 쓰는 중인 버킷의 시간 구간이 지났으면 새 버킷을 연다. (만료 스케줄러에서 호출)
+    // 비운 건수를 반환한다.
+    public synchronized int rotate() throws SQLException {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+
+        // 다음 버킷이 열린 시각 이전에 등록된 행만 담겨 있으므로, 그 시각에서 만료 시간이 지나면 버킷 전체가 만료되었다.
+        // 버킷에 담긴 아이디는 버킷의 첫 아이디부터 다음 버킷의 첫 아이디 바로 앞까지이다.
+        int purgedCount = 0;
+        List<Bucket> current = buckets;
+        for (int i = current.size() - 1; i > 0; i--) {
+            Bucket next = current.get(i - 1);
+            if (next.openedAt().getTime() + ttlMillis > now) {
+                break;
+            }
+            purgedCount += purge(current.get(i), next.firstId() - 1);
+        }
+
+        Bucket newest = buckets.get(0);
+        if (newest.openedAt().getTime() + bucketMillis <= now) {
+            openBucket((newest.slot() + 1) % SLOTS);
+        }
+        return purgedCount;
+    }
+
+    // 버킷 테이블을 통째로 비운다. (지운 아이디 범위는 검색 색인/캐시/통계/피드에 한 번에 알린다)
+    // 등록은 비우기와 버킷 목록 갱신 사이에만 막는다. 비운 버킷 범위의 아이디는 isPurged() 로 걸러져 다시 들어가지 않는다.
+    // 건수는 로그/메트릭 용도라 막기 전에 센다. (조건 없는 COUNT(*) 는 행을 읽지 않는다)
+    private int purge(Bucket bucket, long toId) throws SQLException {
+        int purgedCount;
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(COUNT_SQL.formatted(bucket.table()))) {
+                resultSet.next();
+                purgedCount = resultSet.getInt(1);
+            }
+
+            connection.setAutoCommit(false);
+            rotationLock.writeLock().lock();
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("TRUNCATE TABLE " + bucket.table());
+                }
+                try (PreparedStatement preparedStatement = connection.prepareStatement(DELETE_BUCKET_SQL)) {
+                    preparedStatement.setInt(1, bucket.slot());
+                    preparedStatement.executeUpdate();
+                }
+                connection.commit();
+
+                List<Bucket> remaining = new ArrayList<>(buckets);
+                remaining.remove(bucket);
+                buckets = List.copyOf(remaining);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                rotationLock.writeLock().unlock();
+            }
+        }
+
+        eventPublisher.publishEvent(new EmotionBucketPurgedEvent(bucket.firstId(), toId));
+        logger.info("버킷 비우기 완료::table={}, fromId={}, toId={}, purgedCount={}", bucket.table(), bucket.firstId(), toId, purgedCount);
+        return purgedCount;
+    }
+
+    // 새 버킷 열기 (등록 중인 요청이 끝날 때까지 기다린 뒤 첫 아이디를 정한다)
+    private void openBucket(int slot) throws SQLException {
+        for (Bucket bucket : buckets) {
+            if (bucket.slot() == slot) {
+                // 만료 시간이 버킷 개수에 비해 너무 길거나 비우기가 밀린 경우, 쓰는 중인 버킷을 계속 사용한다.
+                logger.warn("비어 있는 버킷 테이블이 없어 새 버킷을 열지 않습니다::slot={}", slot);
+                return;
+            }
+        }
+
+        rotationLock.writeLock().lock();
+        try (Connection connection = dataSource.getConnection()) {
+            long firstId;
+            try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(NEXT_ID_SQL)) {
+                resultSet.next();
+                firstId = resultSet.getLong(1);
+            }
+
+            try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_BUCKET_SQL)) {
+                preparedStatement.setInt(1, slot);
+                preparedStatement.setLong(2, firstId);
+                preparedStatement.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+                preparedStatement.executeUpdate();
+            }
+            reload();
+            generation++;
+            logger.info("새 버킷 열기::slot={}, firstId={}", slot, firstId);
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+    }
+
+    // 버킷 테이블(SLOTS 개)과 조회용 뷰 만들기 (이미 있으면 그대로 사용)
+    private void createTables() throws SQLException {
+        StringBuilder view = new StringBuilder("CREATE OR REPLACE VIEW " + TABLE + " AS ");
+        try (Connection connection = dataSource.getConnection();
+            Statement statement = connection.createStatement()) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                String table = Bucket.tableName(slot);
+                statement.execute(CREATE_TABLE_SQL.formatted(table));
+                for (String sql : CREATE_INDEX_SQLS) {
+                    statement.execute(sql.formatted(table));
+                }
+                if (slot > 0) {
+                    view.append(" UNION ALL ");
+                }
+                view.append(VIEW_SELECT_SQL.formatted(table));
+            }
+            statement.execute(view.toString());
+        }
+    }
+
+    // 예시 데이터 넣기 (버킷 테이블이 있어야 하므로 spring.sql.init 대신 테이블을 만든 뒤 실행)
+    private void populate() {
+        if (dataLocations.isBlank()) {
+            return;
+        }
+        ResourceLoader resourceLoader = new DefaultResourceLoader();
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+        populator.setSqlScriptEncoding("UTF-8");
+        for (String location : dataLocations.split(",")) {
+            populator.addScript(resourceLoader.getResource(location.trim()));
+        }
+        populator.execute(dataSource);
+    }
+
+    private void reload() throws SQLException {
+        List<Bucket> loaded = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+            Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery(SELECT_BUCKETS_SQL)) {
+            while (resultSet.next()) {
+                loaded.add(new Bucket(resultSet.getInt(1), resultSet.getLong(2), resultSet.getTimestamp(3)));
+            }
+        }
+        buckets = List.copyOf(loaded);
+    }
+}
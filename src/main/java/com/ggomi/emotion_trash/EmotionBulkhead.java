@@ -0,0 +1,13 @@
+package com.ggomi.emotion_trash;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// API가 사용하는 DB 동시 사용 제한(bulkhead) 종류 (EmotionBulkheads 에서 처리)
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EmotionBulkhead {
+    EmotionBulkheads.Kind value();
+}
@@ -0,0 +1,163 @@
+package com.ggomi.emotion_trash;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// API 종류별 DB 동시 사용 제한(bulkhead)
+// 느린 검색(LIKE)이 몰려도 커넥션 풀을 모두 차지하지 못하도록 종류별로 세마포어를 두고,
+// @EmotionBulkhead 가 붙은 API는 자리를 얻은 뒤에만 실행한다. 정해진 시간 안에 자리가 나지 않으면 바로 503으로 응답한다.
+// 커넥션 풀 크기(spring.datasource.hikari.maximum-pool-size)는 종류별 자리 수의 합보다 크게 둔다.
+// 캐시에서 바로 응답할 수 있는 API(상세 조회)는 어노테이션 대신 DB를 읽기 직전에 tryAcquire()/release() 를 직접 호출한다.
+@Component
+public class EmotionBulkheads implements HandlerInterceptor, WebMvcConfigurer {
+    // 로거 객체 생성
+    private Logger logger = LoggerFactory.getLogger(EmotionBulkheads.class);
+
+    // 자리를 얻은 요청 표시 (요청이 끝날 때 반납)
+    private static final String ACQUIRED_ATTRIBUTE = EmotionBulkheads.class.getName() + ".acquired";
+    // 자리를 얻지 못했을 때 응답 메세지
+    static final String REJECTED_MESSAGE = "요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요.";
+
+    public enum Kind {
+        SEARCH, // 목록 조회, 내보내기
+        POINT, // 상세 조회
+        WRITE // 등록, 수정, 삭제
+    }
+
+    // DB를 읽기 직전에 자리를 얻지 못함 (503 으로 응답)
+    public static class RejectedException extends RuntimeException {
+        public RejectedException(Kind kind) {
+            super("DB 동시 사용 제한 초과::kind=" + kind);
+        }
+    }
+
+    private record Compartment(Semaphore semaphore, long timeoutMillis, Counter rejectedCounter, Timer waitTimer) {
+    }
+
+    private final boolean enabled;
+    private final Map<Kind, Compartment> compartments = new EnumMap<>(Kind.class);
+
+    public EmotionBulkheads(
+        MeterRegistry meterRegistry,
+        @Value("${emotion.bulkhead.enabled:true}") boolean enabled,
+        @Value("${emotion.bulkhead.search.permits:8}") int searchPermits,
+        @Value("${emotion.bulkhead.search.timeout-ms:100}") long searchTimeoutMillis,
+        @Value("${emotion.bulkhead.point.permits:6}") int pointPermits,
+        @Value("${emotion.bulkhead.point.timeout-ms:50}") long pointTimeoutMillis,
+        @Value("${emotion.bulkhead.write.permits:6}") int writePermits,
+        @Value("${emotion.bulkhead.write.timeout-ms:500}") long writeTimeoutMillis
+    ) {
+        this.enabled = enabled;
+        compartments.put(Kind.SEARCH, compartment(meterRegistry, Kind.SEARCH, searchPermits, searchTimeoutMillis));
+        compartments.put(Kind.POINT, compartment(meterRegistry, Kind.POINT, pointPermits, pointTimeoutMillis));
+        compartments.put(Kind.WRITE, compartment(meterRegistry, Kind.WRITE, writePermits, writeTimeoutMillis));
+    }
+
+    private Compartment compartment(MeterRegistry meterRegistry, Kind kind, int permits, long timeoutMillis) {
+        String name = kind.name().toLowerCase();
+        Semaphore semaphore = new Semaphore(permits, true);
+
+        Gauge.builder("emotion.bulkhead.active", semaphore, s -> permits - s.availablePermits())
+            .description("DB 동시 사용 중인 요청 수")
+            .tag("name", name)
+            .register(meterRegistry);
+        Gauge.builder("emotion.bulkhead.waiting", semaphore, Semaphore::getQueueLength)
+            .description("자리를 기다리는 요청 수")
+            .tag("name", name)
+            .register(meterRegistry);
+        Counter rejectedCounter = Counter.builder("emotion.bulkhead.rejected")
+            .description("자리를 얻지 못해 503으로 응답한 요청 수")
+            .tag("name", name)
+            .register(meterRegistry);
+        Timer waitTimer = Timer.builder("emotion.bulkhead.wait")
+            .description("자리를 얻기까지 기다린 시간")
+            .tag("name", name)
+            .register(meterRegistry);
+        return new Compartment(semaphore, timeoutMillis, rejectedCounter, waitTimer);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/emotions", "/emotions/**");
+    }
+
+    // 자리 얻기 (timeout 안에 얻지 못하면 false)
+    public boolean tryAcquire(Kind kind) {
+        if (!enabled) {
+            return true;
+        }
+
+        Compartment compartment = compartments.get(kind);
+        long startNanos = System.nanoTime();
+        try {
+            boolean acquired = compartment.semaphore().tryAcquire(compartment.timeoutMillis(), TimeUnit.MILLISECONDS);
+            compartment.waitTimer().record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                compartment.rejectedCounter().increment();
+            }
+            return acquired;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            compartment.rejectedCounter().increment();
+            return false;
+        }
+    }
+
+    public void release(Kind kind) {
+        if (enabled) {
+            compartments.get(kind).semaphore().release();
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        EmotionBulkhead bulkhead = handlerMethod.getMethodAnnotation(EmotionBulkhead.class);
+        if (bulkhead == null) {
+            return true;
+        }
+
+        if (!tryAcquire(bulkhead.value())) {
+            logger.warn("DB 동시 사용 제한 초과::kind={}, uri={}", bulkhead.value(), request.getRequestURI());
+            response.setStatus(503);
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write(REJECTED_MESSAGE);
+            return false;
+        }
+        request.setAttribute(ACQUIRED_ATTRIBUTE, bulkhead.value());
+        return true;
+    }
+
+    // 응답(스트리밍 포함)이 끝나면 반납
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(ACQUIRED_ATTRIBUTE) instanceof Kind kind) {
+            request.removeAttribute(ACQUIRED_ATTRIBUTE);
+            release(kind);
+        }
+    }
+}
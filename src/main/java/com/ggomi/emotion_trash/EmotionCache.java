@@ -0,0 +1,99 @@
+package com.ggomi.emotion_trash;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// 감정 상세 조회 캐시 (아이디 기준, 크기 초과 시 W-TinyLFU 방식으로 제거)
+// 사용 중(USE_YN = 'Y')인 감정은 등록 후 만료 시간이 지나면 캐시에서도 사라지고,
+// 등록/수정/삭제/만료 이벤트가 오면 해당 아이디를 캐시에서 지운다.
+@Component
+public class EmotionCache {
+
+    // 캐시 사용 여부
+    private final boolean enabled;
+
+    private final Cache<Long, Emotion> cache;
+
+    public EmotionCache(
+        MeterRegistry meterRegistry,
+        @Value("${emotion.cache.enabled:true}") boolean enabled,
+        @Value("${emotion.cache.maximum-size:10000}") long maximumSize,
+        @Value("${emotion.cache.ttl-seconds:60}") long ttlSeconds,
+        @Value("${emotion.expiry.ttl-seconds:300}") long expiryTtlSeconds
+    ) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new EmotionExpiry(Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(expiryTtlSeconds)))
+            .recordStats()
+            .build();
+
+        // 적중/실패/제거 건수 메트릭 (cache.gets, cache.evictions ...)
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "emotion");
+    }
+
+    // 캐시에 있으면 캐시 값을, 없으면 loader로 조회해서 캐시에 담는다. (조회 결과가 null이면 담지 않는다)
+    public Emotion get(long id, Function<Long, Emotion> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        return cache.get(id, loader);
+    }
+
+    // 등록/수정/삭제/만료 시 캐시에서 제거
+    @EventListener
+    public void onChanged(EmotionChangedEvent event) {
+        cache.invalidate(event.id());
+    }
+
+    // 버킷 비우기 시 비운 아이디 범위를 캐시에서 제거 (캐시에 담긴 아이디만 확인)
+    @EventListener
+    public void onBucketPurged(EmotionBucketPurgedEvent event) {
+        cache.asMap().keySet().removeIf(event::contains);
+    }
+
+    // 사용 중인 감정은 만료 시각(REG_DTM + 만료 시간)까지만, 나머지는 ttl 만큼 캐시에 둔다.
+    private static class EmotionExpiry implements Expiry<Long, Emotion> {
+        private final Duration ttl;
+        private final Duration expiryTtl;
+
+        EmotionExpiry(Duration ttl, Duration expiryTtl) {
+            this.ttl = ttl;
+            this.expiryTtl = expiryTtl;
+        }
+
+        @Override
+        public long expireAfterCreate(Long key, Emotion value, long currentTime) {
+            if ("Y".equals(value.useYn()) && value.regDtm() != null) {
+                Duration remaining = Duration.between(LocalDateTime.now(), value.regDtm().toLocalDateTime().plus(expiryTtl));
+                if (remaining.isNegative()) {
+                    return 0;
+                }
+                return Math.min(remaining.toNanos(), ttl.toNanos());
+            }
+            return ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, Emotion value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, Emotion value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.ggomi.emotion_trash;
+
+import java.time.LocalDateTime;
+
+// 감정 데이터가 등록/수정/삭제/만료되었을 때 발행하는 이벤트 (커밋 이후 발행)
+// 부분 수정(PATCHED)은 바뀐 값만 담고, 바뀌지 않은 값은 null 이다.
+// 단 주제(subject)는 실시간 피드가 주제로 거를 수 있도록 삭제/만료/부분 수정에도 현재 값을 담는다.
+// 등록(CREATED)은 DB에 저장한 등록 시각(regDtm)을 담고, 나머지는 null 이다.
+public record EmotionChangedEvent(Type type, long id, String content, String subject, String useYn, LocalDateTime regDtm) {
+
+    public enum Type {
+        CREATED, // 등록
+        UPDATED, // 수정
+        PATCHED, // 부분 수정
+        DELETED, // 삭제 (USE_YN = 'N')
+        EXPIRED, // 만료 (USE_YN = 'N')
+        PURGED // 만료 (물리 삭제)
+    }
+
+    // 등록 외의 이벤트 (등록 시각 없음)
+    public EmotionChangedEvent(Type type, long id, String content, String subject, String useYn) {
+        this(type, id, content, subject, useYn, null);
+    }
+}
@@ -0,0 +1,120 @@
+package com.ggomi.emotion_trash;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+// 가상 스레드 모드에서 DB 커넥션 동시 사용 수 제한
+// 가상 스레드는 요청마다 만들어지므로 커넥션 풀 크기보다 훨씬 많은 스레드가 한꺼번에 커넥션을 요청할 수 있다.
+// 풀 크기만큼의 세마포어를 먼저 얻은 스레드만 풀에 접근하고, 나머지는 순서대로(FIFO) 기다리게 한다.
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class EmotionConnectionLimiter implements BeanPostProcessor {
+
+    private final int permits; // 동시에 사용할 수 있는 커넥션 수 (= 풀 크기)
+    private final long timeoutMillis; // 커넥션을 기다리는 최대 시간
+
+    public EmotionConnectionLimiter(
+        @Value("${spring.datasource.hikari.maximum-pool-size:10}") int permits,
+        @Value("${spring.datasource.hikari.connection-timeout:30000}") long timeoutMillis
+    ) {
+        this.permits = permits;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof LimitedDataSource)) {
+            return new LimitedDataSource(dataSource, permits, timeoutMillis);
+        }
+        return bean;
+    }
+
+    // 세마포어를 얻은 뒤 커넥션을 빌려주고, 커넥션을 닫을 때 세마포어를 반납하는 DataSource
+    static class LimitedDataSource extends DelegatingDataSource implements AutoCloseable {
+        private final Semaphore semaphore;
+        private final long timeoutMillis;
+
+        LimitedDataSource(DataSource dataSource, int permits, long timeoutMillis) {
+            super(dataSource);
+            this.semaphore = new Semaphore(permits, true);
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return releaseOnClose(super.getConnection());
+            } catch (SQLException | RuntimeException e) {
+                semaphore.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return releaseOnClose(super.getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                semaphore.release();
+                throw e;
+            }
+        }
+
+        private void acquire() throws SQLException {
+            try {
+                if (!semaphore.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new SQLTransientConnectionException("커넥션 대기 시간(" + timeoutMillis + "ms)을 초과했습니다.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("커넥션 대기 중 중단되었습니다.", e);
+            }
+        }
+
+        // close()가 처음 호출될 때 한 번만 세마포어를 반납
+        private Connection releaseOnClose(Connection connection) {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        semaphore.release();
+                    }
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+
+        // 원래 DataSource(커넥션 풀)도 종료 시 닫히도록 위임
+        @Override
+        public void close() throws Exception {
+            if (getTargetDataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ggomi.emotion_trash;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// 커서(Keyset) 페이징에서 다음 페이지의 시작 위치
+// 마지막으로 조회된 행의 정렬 컬럼 값과 아이디를 담고, 클라이언트에게는 불투명한 문자열로 전달한다.
+public record EmotionCursor(String column, String direction, long lastId, String lastValue) {
+
+    private static final String DELIMITER = "\n";
+
+    // 클라이언트에게 전달할 문자열로 변환 (column \n direction \n lastId [\n lastValue])
+    public String encode() {
+        StringBuilder token = new StringBuilder();
+        token.append(column).append(DELIMITER).append(direction).append(DELIMITER).append(lastId);
+        // 정렬 값이 NULL이면 생략한다.
+        if (lastValue != null) {
+            token.append(DELIMITER).append(lastValue);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 클라이언트가 보낸 문자열을 커서로 변환 (형식이 맞지 않으면 IllegalArgumentException)
+    public static EmotionCursor decode(String token) {
+        String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        // 정렬 값(CONTENT)에 줄바꿈이 있을 수 있으므로 최대 4개로 자른다.
+        String[] tokens = decoded.split(DELIMITER, 4);
+        if (tokens.length < 3) {
+            throw new IllegalArgumentException("커서 형식이 올바르지 않습니다.");
+        }
+        try {
+            return new EmotionCursor(tokens[0], tokens[1], Long.parseLong(tokens[2]), tokens.length == 4 ? tokens[3] : null);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("커서 형식이 올바르지 않습니다.", e);
+        }
+    }
+}
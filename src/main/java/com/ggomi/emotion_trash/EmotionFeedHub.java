@@ -0,0 +1,368 @@
+package com.ggomi.emotion_trash;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+// 실시간 감정 피드 (Server-Sent Events)
+// 등록/수정/삭제/만료 이벤트를 한 번만 JSON으로 만들어서 최근 이벤트에 순번대로 쌓는다. (요청 스레드는 여기까지만 한다)
+// 전송 스레드 하나가 쌓인 이벤트를 순번대로 구독자별 큐에 나눠 넣고, 소수의 전송 스레드가 큐를 비우면서 보낸다.
+// 구독자 큐가 가득 차면 정책에 따라 가장 오래된 이벤트를 버리거나(drop-oldest) 연결을 끊는다(disconnect).
+// 최근 이벤트는 replay-size 만큼 보관해서 재접속 시 Last-Event-ID 다음부터 다시 보내준다. (구독자가 늘어도 DB는 조회하지 않는다)
+// 이벤트 아이디는 "기동 번호-피드 순번" 이다. 순번은 재시작하면 1부터 다시 시작하므로, 다른 기동의 아이디로 재접속하면 RESYNC 를 보낸다.
+@Component
+public class EmotionFeedHub {
+    // 로거 객체 생성
+    private Logger logger = LoggerFactory.getLogger(EmotionFeedHub.class);
+
+    // 피드 이벤트 (seq : 피드 순번, broadcast : 주제와 관계없이 모든 구독자에게 보냄, json : 미리 만든 전송 데이터)
+    private record FeedEvent(long seq, String type, String subject, boolean broadcast, String json) {
+    }
+
+    // 구독자 (subject가 있으면 해당 주제 이벤트만 받는다)
+    private class Subscriber {
+        final SseEmitter emitter;
+        final String subject;
+        final EmotionRingBuffer<FeedEvent> queue;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, String subject) {
+            this.emitter = emitter;
+            this.subject = subject;
+            this.queue = new EmotionRingBuffer<>(queueCapacity);
+        }
+
+        boolean accepts(FeedEvent event) {
+            return subject == null || event.broadcast() || subject.equals(event.subject());
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+
+    private final int queueCapacity; // 구독자별 대기 이벤트 최대 건수
+    private final boolean disconnectSlowSubscriber; // 큐가 가득 찼을 때 연결을 끊을지 (false면 가장 오래된 이벤트를 버림)
+    private final int maxSubscribers; // 최대 구독자 수
+    private final long timeoutMillis; // 연결 유지 시간 (지나면 끊고 클라이언트가 Last-Event-ID로 다시 접속)
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender;
+
+    // 기동 번호 (기동 시각, SSE 이벤트 아이디 앞에 붙인다)
+    private final String epoch = Long.toString(System.currentTimeMillis());
+
+    // 최근 이벤트 (재접속 시 다시 보내기와 구독자 큐에 나눠 넣기 용도, 원형 배열)
+    // 순번 발급과 보관은 this 락, 구독자 큐에 나눠 넣기와 구독 등록은 dispatchLock 으로 막는다. (dispatchLock -> this 순서로만 잡는다)
+    private final FeedEvent[] recentEvents;
+    private volatile long nextSeq = 1;
+
+    private final Object dispatchLock = new Object();
+    private long dispatchedSeq; // 구독자 큐에 나눠 넣은 마지막 순번 (dispatchLock)
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    private final Counter droppedCounter;
+    private final Counter disconnectedCounter;
+
+    public EmotionFeedHub(
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry,
+        @Value("${emotion.feed.queue-capacity:256}") int queueCapacity,
+        @Value("${emotion.feed.overflow:drop-oldest}") String overflow,
+        @Value("${emotion.feed.max-subscribers:10000}") int maxSubscribers,
+        @Value("${emotion.feed.replay-size:1024}") int replaySize,
+        @Value("${emotion.feed.timeout-ms:1800000}") long timeoutMillis,
+        @Value("${emotion.feed.sender-threads:4}") int senderThreads
+    ) {
+        this.objectMapper = objectMapper;
+        this.queueCapacity = queueCapacity;
+        this.disconnectSlowSubscriber = "disconnect".equalsIgnoreCase(overflow);
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeoutMillis;
+        this.recentEvents = new FeedEvent[replaySize];
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "emotion-feed-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("emotion.feed.subscribers", subscribers, Set::size)
+            .description("실시간 피드 구독자 수")
+            .register(meterRegistry);
+        this.droppedCounter = Counter.builder("emotion.feed.dropped")
+            .description("구독자 큐가 가득 차서 버린 이벤트 수")
+            .register(meterRegistry);
+        this.disconnectedCounter = Counter.builder("emotion.feed.disconnected")
+            .description("큐가 가득 차거나 전송에 실패해서 끊은 구독자 수")
+            .register(meterRegistry);
+    }
+
+    // 구독 (구독자 수가 가득 찼으면 null)
+    // lastEventId가 있으면 보관 중인 최근 이벤트 중 그 다음부터 먼저 보낸다.
+    // 다른 기동(재시작 전)의 아이디이거나 알 수 없는 아이디면 이어 보낼 수 없으므로 RESYNC 만 보낸다.
+    public SseEmitter subscribe(String subject, String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, subject);
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(e -> close(subscriber));
+
+        // 나눠 넣기와 같은 락 안에서 이미 나눠 넣은 순번까지 다시 보낼 이벤트를 담고 구독자로 등록해야 중간에 빠지거나 겹치는 이벤트가 없다.
+        // (그 다음 순번부터는 dispatch 가 이 구독자에게도 넣는다)
+        synchronized (dispatchLock) {
+            synchronized (this) {
+                long endSeq = dispatchedSeq + 1;
+                long lastSeq = lastEventId == null ? -1 : seqOf(lastEventId);
+                if (lastEventId != null && (lastSeq < 0 || lastSeq >= endSeq)) {
+                    subscriber.queue.offer(new FeedEvent(endSeq - 1, "RESYNC", null, true, "{}"));
+                } else if (lastEventId != null) {
+                    // 보관 중인 이벤트 중 구독자 큐 크기만큼만 다시 보낸다.
+                    long oldestSeq = Math.max(1, nextSeq - recentEvents.length);
+                    long fromSeq = Math.max(lastSeq + 1, Math.max(oldestSeq, endSeq - subscriber.queue.capacity() + 1));
+                    if (fromSeq > lastSeq + 1) {
+                        // 다시 보낼 수 없는 이벤트가 있으니 목록을 다시 조회하라고 알린다.
+                        subscriber.queue.offer(new FeedEvent(fromSeq - 1, "RESYNC", null, true, "{}"));
+                        fromSeq = Math.max(fromSeq, endSeq - subscriber.queue.capacity() + 2);
+                    }
+                    for (long seq = fromSeq; seq < endSeq; seq++) {
+                        FeedEvent event = recentEvents[(int) (seq % recentEvents.length)];
+                        if (subscriber.accepts(event)) {
+                            subscriber.queue.offer(event);
+                        }
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        schedule(subscriber);
+        logger.debug("피드 구독::subject={}, lastEventId={}, subscriberCount={}", subject, lastEventId, subscribers.size());
+        return emitter;
+    }
+
+    // 등록/수정/삭제/만료 이벤트를 구독자에게 전달 (주제 필터는 이벤트에 담긴 현재 주제로 거른다)
+    @EventListener
+    public void onChanged(EmotionChangedEvent event) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("TYPE", event.type().name());
+        data.put("ID", event.id());
+        data.put("CONTENT", event.content());
+        data.put("SUBJECT", event.subject());
+        data.put("USE_YN", event.useYn());
+        publish(event.type().name(), event.subject(), false, toJson(data));
+    }
+
+    // 버킷 비우기 이벤트는 아이디 범위 하나로 보낸다. (지운 행의 주제를 모르므로 모든 구독자에게)
+    @EventListener
+    public void onBucketPurged(EmotionBucketPurgedEvent event) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("TYPE", EmotionChangedEvent.Type.PURGED.name());
+        data.put("FROM_ID", event.fromId());
+        data.put("TO_ID", event.toId());
+        publish(EmotionChangedEvent.Type.PURGED.name(), null, true, toJson(data));
+    }
+
+    // 피드 순번을 붙여 최근 이벤트에 보관만 하고, 구독자 큐에 나눠 넣기는 전송 스레드에 맡긴다.
+    private void publish(String type, String subject, boolean broadcast, String json) {
+        synchronized (this) {
+            long seq = nextSeq++;
+            recentEvents[(int) (seq % recentEvents.length)] = new FeedEvent(seq, type, subject, broadcast, json);
+        }
+        scheduleDispatch();
+    }
+
+    // 나눠 넣기는 한 번에 한 스레드만 한다. (구독자 큐에 순번 순서대로 들어간다)
+    private void scheduleDispatch() {
+        if (dispatching.compareAndSet(false, true)) {
+            sender.execute(this::dispatch);
+        }
+    }
+
+    // 아직 나눠 넣지 않은 이벤트를 순번대로 구독자 큐에 넣는다.
+    // 나눠 넣기가 밀려서 보관 중인 이벤트가 덮어써졌으면 구독자에게 RESYNC 를 보낸다.
+    private void dispatch() {
+        try {
+            while (true) {
+                List<FeedEvent> events = new ArrayList<>();
+                long lostSeq = 0;
+                synchronized (this) {
+                    long fromSeq = dispatchedSeq + 1;
+                    long oldestSeq = Math.max(1, nextSeq - recentEvents.length);
+                    if (fromSeq < oldestSeq) {
+                        lostSeq = oldestSeq - 1;
+                        fromSeq = oldestSeq;
+                    }
+                    for (long seq = fromSeq; seq < nextSeq; seq++) {
+                        events.add(recentEvents[(int) (seq % recentEvents.length)]);
+                    }
+                }
+                if (events.isEmpty()) {
+                    return;
+                }
+
+                synchronized (dispatchLock) {
+                    if (lostSeq > 0) {
+                        logger.warn("피드 나눠 넣기 지연으로 이벤트 유실::lastSeq={}", lostSeq);
+                        dispatchedSeq = lostSeq;
+                        offer(new FeedEvent(lostSeq, "RESYNC", null, true, "{}"));
+                    }
+                    // 순번을 먼저 올려서 넣다가 실패한 이벤트를 다시 넣으려고 반복하지 않는다.
+                    for (FeedEvent event : events) {
+                        dispatchedSeq = event.seq();
+                        offer(event);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("피드 나눠 넣기 실패::{}", e.getMessage());
+        } finally {
+            dispatching.set(false);
+            // 끝내는 사이에 발행된 이벤트가 있으면 다시 맡긴다.
+            if (dispatchedSeq() < nextSeq - 1) {
+                scheduleDispatch();
+            }
+        }
+    }
+
+    private void offer(FeedEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accepts(event) && enqueue(subscriber, event)) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private long dispatchedSeq() {
+        synchronized (dispatchLock) {
+            return dispatchedSeq;
+        }
+    }
+
+    // 연결 유지 확인 (프록시가 유휴 연결을 끊지 않도록 하고, 끊긴 구독자를 정리)
+    @Scheduled(fixedDelayString = "${emotion.feed.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            sender.execute(() -> {
+                try {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    close(subscriber);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        sender.shutdown();
+        try {
+            sender.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 구독자 큐에 넣기 (가득 찼으면 정책에 따라 가장 오래된 이벤트를 버리거나 연결을 끊는다)
+    private boolean enqueue(Subscriber subscriber, FeedEvent event) {
+        if (subscriber.queue.offer(event)) {
+            return true;
+        }
+        if (disconnectSlowSubscriber) {
+            disconnectedCounter.increment();
+            subscriber.emitter.complete();
+            close(subscriber);
+            return false;
+        }
+        subscriber.queue.poll();
+        droppedCounter.increment();
+        return subscriber.queue.offer(event);
+    }
+
+    // 전송 스레드에 구독자 큐 비우기를 맡긴다. (구독자 한 명은 한 번에 한 스레드만 보낸다)
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            FeedEvent event;
+            while (!subscriber.closed && (event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event()
+                    .id(epoch + "-" + event.seq())
+                    .name(event.type())
+                    .data(event.json(), MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("피드 전송 실패::{}", e.getMessage());
+            disconnectedCounter.increment();
+            close(subscriber);
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        // 비우는 사이에 들어온 이벤트가 있으면 다시 맡긴다.
+        if (!subscriber.closed && subscriber.queue.size() > 0) {
+            schedule(subscriber);
+        }
+    }
+
+    // 이번 기동의 이벤트 아이디에서 피드 순번을 꺼낸다. (다른 기동의 아이디이거나 형식이 틀리면 -1)
+    private long seqOf(String eventId) {
+        String prefix = epoch + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+
+    // 목록 조회 응답과 같은 키(ID, CONTENT ...)에 이벤트 종류(TYPE)를 더한 데이터
+    private String toJson(Map<String, Object> data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.ggomi.emotion_trash;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// SQL 실행 시간 메트릭 (emotion.jdbc.statement)
+// DataSource를 감싸서 Statement의 execute* 호출 시간을 잰다.
+// SQL 문장을 그대로 태그로 쓰면 종류가 끝없이 늘어나므로 명령(SELECT, INSERT ...)과 테이블 이름으로 묶는다.
+@Component
+public class EmotionJdbcMetrics implements BeanPostProcessor {
+
+    // 명령 뒤에 오는 테이블 이름 (SELECT ... FROM OLD TABLE (UPDATE EMOTIONS ...) 같은 경우 OLD/NEW/FINAL 은 건너뛴다)
+    private static final Pattern TABLE_PATTERN = Pattern.compile("\\b(?:FROM|INTO|UPDATE)\\s+(?!(?:OLD|NEW|FINAL)\\b)([A-Z_][A-Z0-9_]*)", Pattern.CASE_INSENSITIVE);
+
+    // 메트릭 레지스트리는 다른 BeanPostProcessor 보다 먼저 만들어지지 않도록 처음 SQL을 실행할 때 꺼낸다.
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public EmotionJdbcMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof TimedDataSource)) {
+            return new TimedDataSource(dataSource, meterRegistry);
+        }
+        return bean;
+    }
+
+    // SQL 의 명령과 테이블 이름 ("SELECT ... FROM EMOTIONS" -> SELECT, EMOTIONS)
+    static String[] describe(String sql) {
+        if (sql == null || sql.isBlank()) {
+            return new String[] {"UNKNOWN", "none"};
+        }
+        String trimmed = sql.trim();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end += 1;
+        }
+        String operation = end == 0 ? "UNKNOWN" : trimmed.substring(0, end).toUpperCase(Locale.ROOT);
+
+        Matcher matcher = TABLE_PATTERN.matcher(trimmed);
+        String table = matcher.find() ? matcher.group(1).toUpperCase(Locale.ROOT) : "none";
+        return new String[] {operation, table};
+    }
+
+    // Connection이 만드는 Statement 마다 실행 시간을 재는 DataSource
+    static class TimedDataSource extends DelegatingDataSource implements AutoCloseable {
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        TimedDataSource(DataSource dataSource, ObjectProvider<MeterRegistry> meterRegistry) {
+            super(dataSource);
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return timedConnection(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return timedConnection(super.getConnection(username, password));
+        }
+
+        private Connection timedConnection(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                // prepareStatement, prepareCall 은 SQL 을 미리 알고, createStatement 는 execute 할 때 알 수 있다.
+                if (result instanceof Statement statement && method.getName().startsWith("prepare")) {
+                    return timedStatement(statement, method.getReturnType(), (String) args[0]);
+                }
+                if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+                    return timedStatement(statement, Statement.class, null);
+                }
+                return result;
+            });
+        }
+
+        private Object timedStatement(Statement statement, Class<?> type, String preparedSql) {
+            return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+                if (!method.getName().startsWith("execute")) {
+                    return invoke(statement, method, args);
+                }
+
+                String sql = preparedSql;
+                if (sql == null && args != null && args.length > 0 && args[0] instanceof String text) {
+                    sql = text;
+                }
+                String[] description = describe(sql);
+
+                long startNanos = System.nanoTime();
+                String outcome = "success";
+                try {
+                    return invoke(statement, method, args);
+                } catch (Throwable e) {
+                    outcome = "error";
+                    throw e;
+                } finally {
+                    Timer.builder("emotion.jdbc.statement")
+                        .description("SQL 실행 시간")
+                        .tag("operation", description[0])
+                        .tag("table", description[1])
+                        .tag("outcome", outcome)
+                        .register(meterRegistry.getObject())
+                        .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                }
+            });
+        }
+
+        private Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        // 원래 DataSource(커넥션 풀)도 종료 시 닫히도록 위임
+        @Override
+        public void close() throws Exception {
+            if (getTargetDataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.ggomi.emotion_trash;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+// 요청마다 찍히는 로그 수 제한 (logback-spring.xml 의 prod 프로필에서 사용)
+// loggerPrefix 로 시작하는 로거의 INFO 이하 로그를 1초에 permitsPerSecond 건까지만 남기고 나머지는 버린다.
+// WARN, ERROR 는 제한하지 않고, 버린 건수는 다음 1초의 첫 로그가 들어올 때 WARN 으로 남긴다.
+public class EmotionLogRateLimitFilter extends TurboFilter {
+
+    private String loggerPrefix = "com.ggomi.emotion_trash";
+    private long permitsPerSecond = 100;
+
+    private final AtomicLong windowSecond = new AtomicLong();
+    private final AtomicLong permitted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // 현재 시각(ms) (테스트에서 바꿔 끼운다)
+    LongSupplier clock = System::currentTimeMillis;
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setPermitsPerSecond(long permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || level == null || level.isGreaterOrEqual(Level.WARN) || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        // 레벨 설정상 어차피 남지 않을 로그는 건수에 넣지 않는다.
+        // (logger.isEnabledFor 는 터보 필터를 다시 호출하므로 여기서 쓰면 무한 재귀가 된다)
+        if (level.toInt() < logger.getEffectiveLevel().toInt()) {
+            return FilterReply.NEUTRAL;
+        }
+
+        long second = clock.getAsLong() / 1000;
+        long current = windowSecond.get();
+        if (second != current && windowSecond.compareAndSet(current, second)) {
+            permitted.set(0);
+            long droppedCount = dropped.getAndSet(0);
+            if (droppedCount > 0) {
+                // WARN 은 제한 대상이 아니므로 이 필터를 다시 거쳐도 바로 통과한다.
+                logger.warn("로그 수 제한으로 버린 로그::{}", droppedCount);
+            }
+        }
+
+        if (permitted.incrementAndGet() <= permitsPerSecond) {
+            return FilterReply.NEUTRAL;
+        }
+        dropped.incrementAndGet();
+        return FilterReply.DENY;
+    }
+}
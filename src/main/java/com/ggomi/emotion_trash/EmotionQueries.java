@@ -0,0 +1,239 @@
+package com.ggomi.emotion_trash;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 목록 조회, 내보내기, 부분 수정의 동적 SQL
+// 검색 조건과 정렬 조건의 조합(모양)은 정해진 개수뿐이므로 모양별로 SQL을 한 번만 만들어 두고 재사용한다.
+// 같은 SQL 문자열을 쓰면 H2가 커넥션(세션)마다 파싱/실행 계획을 캐시해 둔다. (JDBC URL 의 QUERY_CACHE_SIZE)
+// 정렬 컬럼/방향은 요청 값을 SQL에 그대로 붙이지 않고 아래 enum 으로만 받는다.
+// 테이블 이름은 EmotionBuckets 가 정한 값(EMOTIONS 또는 버킷 테이블)만 받는다.
+final class EmotionQueries {
+
+    // 검색 조건 (비트 조합)
+    static final int FILTER_IDS = 1; // 검색 인덱스로 찾은 아이디 (ID = ANY(?))
+    static final int FILTER_CONTENT = 2; // CONTENT LIKE (값은 escapeLike 로 바인딩)
+    static final int FILTER_SUBJECT = 4; // SUBJECT LIKE (값은 escapeLike 로 바인딩)
+    static final int FILTER_USE_YN = 8; // USE_YN =
+
+    // 정렬 가능한 컬럼 (nullable : NULL이 들어갈 수 있는 컬럼, 커서 페이징 조건에서 NULL 위치를 고려한다)
+    enum SortColumn {
+        ID(false),
+        CONTENT(false),
+        SUBJECT(true),
+        USE_YN(true),
+        REG_DTM(false),
+        MODI_DTM(false);
+
+        final boolean nullable;
+
+        SortColumn(boolean nullable) {
+            this.nullable = nullable;
+        }
+
+        boolean isTimestamp() {
+            return this == REG_DTM || this == MODI_DTM;
+        }
+    }
+
+    // 정렬 조건 하나 (컬럼, 방향)
+    record Order(SortColumn column, boolean descending) {
+        String direction() {
+            return descending ? "DESC" : "ASC";
+        }
+    }
+
+    // 커서 페이징에서 이전 페이지 마지막 행 다음부터 찾는 조건의 모양
+    enum Seek {
+        NONE, // 첫 페이지
+        VALUE, // 마지막 행의 정렬 값이 있음
+        NULL_VALUE // 마지막 행의 정렬 값이 NULL
+    }
+
+    private record FindAllShape(String table, int filters, List<Order> orders) {
+    }
+
+    private record CursorShape(String table, int filters, Order order, Seek seek) {
+    }
+
+    private static final Map<FindAllShape, String> FIND_ALL_SQL = new ConcurrentHashMap<>();
+    private static final Map<CursorShape, String> CURSOR_SQL = new ConcurrentHashMap<>();
+    // 내보내기 검색 조건 모양 16가지는 테이블별로 처음 사용할 때 한 번에 만들어 둔다.
+    private static final Map<String, String[]> EXPORT_SQL = new ConcurrentHashMap<>();
+    // 부분 수정 모양 8가지는 테이블별로 처음 사용할 때 한 번에 만들어 둔다.
+    private static final Map<String, String[]> PATCH_SQL = new ConcurrentHashMap<>();
+
+    private EmotionQueries() {
+    }
+
+    // 요청 값으로 검색 조건 모양을 만든다. (matchedIds가 있으면 CONTENT, SUBJECT 는 검색 인덱스로 이미 걸렀다)
+    static int filters(List<Long> matchedIds, String content, String subject, String useYn) {
+        int filters = 0;
+        if (matchedIds != null) {
+            filters |= FILTER_IDS;
+        } else {
+            if (content != null && !content.trim().isEmpty()) {
+                filters |= FILTER_CONTENT;
+            }
+            if (subject != null && !subject.trim().isEmpty()) {
+                filters |= FILTER_SUBJECT;
+            }
+        }
+        if (useYn != null && !useYn.trim().isEmpty()) {
+            filters |= FILTER_USE_YN;
+        }
+        return filters;
+    }
+
+    // LIKE 검색어의 %, _ 를 와일드카드가 아닌 글자 그대로 찾도록 escape 한다. (검색 인덱스 검색과 같은 결과)
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // 정렬 조건 파싱 ("REG_DTM,DESC" -> [REG_DTM DESC], 방향이 없으면 ASC, 없으면 빈 목록)
+    // 허용하지 않는 컬럼/방향이면 IllegalArgumentException (메세지는 그대로 응답에 사용)
+    static List<Order> parseSort(String sort) {
+        if (sort == null || sort.trim().isEmpty()) {
+            return List.of();
+        }
+
+        String[] tokens = sort.split(","); // ["CONTENT", "ASC"]
+        SortColumn column;
+        try {
+            column = SortColumn.valueOf(tokens[0].trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("정렬 컬럼(sort)은 " + List.of(SortColumn.values()) + " 중 하나만 가능합니다.");
+        }
+        String direction = tokens.length > 1 ? tokens[1].trim().toUpperCase() : "ASC";
+        if (tokens.length > 2 || (!direction.equals("ASC") && !direction.equals("DESC"))) {
+            throw new IllegalArgumentException("정렬 방향(sort)은 ASC 또는 DESC만 가능합니다.");
+        }
+        return List.of(new Order(column, direction.equals("DESC")));
+    }
+
+    // 목록 조회 (OFFSET 페이징)
+    // 파라미터 : [검색 조건...] LIMIT, OFFSET
+    static String findAll(String table, int filters, List<Order> orders) {
+        return FIND_ALL_SQL.computeIfAbsent(new FindAllShape(table, filters, orders), EmotionQueries::buildFindAll);
+    }
+
+    // 목록 조회 (커서 페이징)
+    // 파라미터 : [검색 조건...] [커서 조건...] LIMIT
+    static String findAllByCursor(String table, int filters, Order order, Seek seek) {
+        return CURSOR_SQL.computeIfAbsent(new CursorShape(table, filters, order, seek), EmotionQueries::buildFindAllByCursor);
+    }
+
+    // 내보내기 (테이블 하나를 기본키 순서로, 버킷 저장소면 버킷 테이블마다 따로 읽는다)
+    // 검색 조건은 LIKE 로만 건다. (FILTER_IDS 없이 filters(null, ...) 로 만든 값)
+    static String export(String table, int filters) {
+        return EXPORT_SQL.computeIfAbsent(table, EmotionQueries::buildExport)[filters];
+    }
+
+    private static String[] buildExport(String table) {
+        String[] sqls = new String[16];
+        for (int filters = 0; filters < sqls.length; filters++) {
+            sqls[filters] = "SELECT " + Emotion.COLUMNS + " FROM " + table + where(filters) + " ORDER BY ID";
+        }
+        return sqls;
+    }
+
+    // 부분 수정 (값이 있는 컬럼만 수정)
+    // 파라미터 : [CONTENT] [USE_YN] [SUBJECT] ID
+    static String patch(String table, boolean content, boolean useYn, boolean subject) {
+        return PATCH_SQL.computeIfAbsent(table, EmotionQueries::buildPatch)[(content ? 1 : 0) | (useYn ? 2 : 0) | (subject ? 4 : 0)];
+    }
+
+    private static String[] buildPatch(String table) {
+        String[] sqls = new String[8];
+        for (int columns = 0; columns < sqls.length; columns++) {
+            sqls[columns] = "UPDATE " + table + " SET MODI_DTM = CURRENT_TIMESTAMP"
+                + ((columns & 1) != 0 ? ", CONTENT = ?" : "")
+                + ((columns & 2) != 0 ? ", USE_YN = ?" : "")
+                + ((columns & 4) != 0 ? ", SUBJECT = ?" : "")
+                + " WHERE ID = ?";
+        }
+        return sqls;
+    }
+
+    private static String where(int filters) {
+        StringBuilder sql = new StringBuilder(" WHERE 1=1");
+        if ((filters & FILTER_IDS) != 0) {
+            sql.append(" AND ID = ANY(?)");
+        }
+        if ((filters & FILTER_CONTENT) != 0) {
+            sql.append(" AND CONTENT LIKE '%' || ? || '%' ESCAPE '\\'");
+        }
+        if ((filters & FILTER_SUBJECT) != 0) {
+            sql.append(" AND SUBJECT LIKE '%' || ? || '%' ESCAPE '\\'");
+        }
+        if ((filters & FILTER_USE_YN) != 0) {
+            sql.append(" AND USE_YN = ?");
+        }
+        return sql.toString();
+    }
+
+    private static String buildFindAll(FindAllShape shape) {
+        StringBuilder sql = new StringBuilder("SELECT " + Emotion.COLUMNS + " FROM " + shape.table() + where(shape.filters()));
+        sql.append(" ORDER BY ");
+        boolean hasId = false;
+        for (Order order : shape.orders()) {
+            sql.append(order.column().name()).append(" ").append(order.direction()).append(", ");
+            hasId |= order.column() == SortColumn.ID;
+        }
+        // 정렬 값이 같은 행의 순서가 페이지마다 바뀌지 않도록 마지막에 ID로 순서를 확정한다. (기본 정렬 : ID DESC)
+        if (!hasId) {
+            sql.append("ID DESC, ");
+        }
+        sql.setLength(sql.length() - 2);
+        sql.append(" LIMIT ? OFFSET ?");
+        return sql.toString();
+    }
+
+    private static String buildFindAllByCursor(CursorShape shape) {
+        StringBuilder sql = new StringBuilder("SELECT " + Emotion.COLUMNS + " FROM " + shape.table() + where(shape.filters()));
+        String column = shape.order().column().name();
+        String direction = shape.order().direction();
+        if (shape.seek() != Seek.NONE) {
+            sql.append(seekCondition(shape.order(), shape.seek()));
+        }
+
+        // 정렬 값이 같으면 ID로 순서를 확정한다. (NULL은 ASC면 맨 앞, DESC면 맨 뒤)
+        if (shape.order().column() == SortColumn.ID) {
+            sql.append(" ORDER BY ID " + direction);
+        } else {
+            sql.append(" ORDER BY " + column + " " + direction + (shape.order().descending() ? " NULLS LAST" : " NULLS FIRST") + ", ID " + direction);
+        }
+        // 다음 페이지가 있는지 알기 위해 한 건 더 조회
+        sql.append(" LIMIT ?");
+        return sql.toString();
+    }
+
+    // 이전 페이지 마지막 행 다음부터 조회하는 조건
+    // (정렬 컬럼, ID) 행 값 비교 + 인덱스 범위 검색을 위한 정렬 컬럼 단독 조건
+    // 파라미터 : ID 정렬이거나 정렬 값이 NULL이면 [ID], 아니면 [정렬 값, 정렬 값, ID]
+    private static String seekCondition(Order order, Seek seek) {
+        String column = order.column().name();
+        String operator = order.descending() ? "<" : ">";
+        String boundOperator = order.descending() ? "<=" : ">=";
+
+        if (order.column() == SortColumn.ID) {
+            return " AND ID " + operator + " ?";
+        }
+
+        String condition = "(" + column + " " + boundOperator + " ? AND (" + column + ", ID) " + operator + " (?, ?))";
+        if (!order.column().nullable) {
+            return " AND " + condition;
+        }
+
+        // NULL은 ASC면 맨 앞, DESC면 맨 뒤에 있다.
+        if (seek == Seek.NULL_VALUE) {
+            return order.descending()
+                ? " AND " + column + " IS NULL AND ID < ?"
+                : " AND ((" + column + " IS NULL AND ID > ?) OR " + column + " IS NOT NULL)";
+        }
+        return order.descending()
+            ? " AND (" + condition + " OR " + column + " IS NULL)"
+            : " AND " + condition;
+    }
+}
@@ -0,0 +1,98 @@
+package com.ggomi.emotion_trash;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// 크기가 정해진 락 없는(lock-free) 원형 큐 (Dmitry Vyukov 방식)
+// 칸마다 순번(sequence)을 두고, 넣는 쪽/꺼내는 쪽이 CAS로 위치를 차지한 뒤 순번을 올려서 상대에게 알린다.
+// 가득 차면 기다리지 않고 바로 false를 반환한다.
+class EmotionRingBuffer<E> {
+
+    // 최대 크기 (이보다 크면 2의 거듭제곱으로 맞출 때 int 범위를 넘는다)
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    EmotionRingBuffer(int requestedCapacity) {
+        // 위치 계산을 나머지 대신 비트 연산으로 하기 위해 2의 거듭제곱으로 맞춘다.
+        // 칸이 하나면 '값이 들어 있음'과 '다음 바퀴에 넣을 수 있음' 순번이 같아져서 덮어쓰므로 최소 2칸으로 만든다.
+        if (requestedCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("큐 크기는 " + MAX_CAPACITY + " 이하만 가능합니다. (요청 크기 : " + requestedCapacity + ")");
+        }
+        int capacity = 2;
+        while (capacity < requestedCapacity) {
+            capacity <<= 1;
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    // 큐에 넣기 (가득 차 있으면 false)
+    boolean offer(E element) {
+        long position = enqueuePosition.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                // 비어 있는 칸 -> 위치를 차지하고 값을 넣은 뒤 꺼낼 수 있다고 표시
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    buffer.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = enqueuePosition.get();
+            } else if (difference < 0) {
+                // 아직 꺼내지 않은 칸 -> 가득 참
+                return false;
+            } else {
+                // 다른 스레드가 먼저 차지함
+                position = enqueuePosition.get();
+            }
+        }
+    }
+
+    // 큐에서 꺼내기 (비어 있으면 null)
+    E poll() {
+        long position = dequeuePosition.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                // 값이 들어 있는 칸 -> 위치를 차지하고 값을 꺼낸 뒤 다음 바퀴에 넣을 수 있다고 표시
+                if (dequeuePosition.compareAndSet(position, position + 1)) {
+                    E element = buffer.get(index);
+                    buffer.set(index, null);
+                    sequences.set(index, position + capacity);
+                    return element;
+                }
+                position = dequeuePosition.get();
+            } else if (difference < 0) {
+                // 아직 값이 들어오지 않은 칸 -> 비어 있음
+                return null;
+            } else {
+                position = dequeuePosition.get();
+            }
+        }
+    }
+
+    // 대략적인 건수 (메트릭 용도)
+    int size() {
+        long size = enqueuePosition.get() - dequeuePosition.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
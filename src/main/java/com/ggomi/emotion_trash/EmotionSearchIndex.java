@@ -0,0 +1,316 @@
+package com.ggomi.emotion_trash;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+// CONTENT, SUBJECT 검색용 메모리 역색인 (2글자 단위 n-gram)
+// 띄어쓰기 단위로 자르면 '프로젝트를' 같은 한국어 어절에서 '프로젝트'를 찾을 수 없으므로 2글자씩 잘라서 색인하고,
+// 검색어의 n-gram을 모두 가진 후보를 찾은 뒤 실제로 포함하는지 한 번 더 확인한다. (LIKE '%검색어%'와 같은 결과)
+@Component
+@DependsOnDatabaseInitialization // schema.sql, data.sql 실행 후 색인
+@DependsOn("emotionBuckets") // 버킷 저장소면 버킷 테이블과 EMOTIONS 뷰를 만든 뒤 색인
+public class EmotionSearchIndex {
+    // 로거 객체 생성
+    private Logger logger = LoggerFactory.getLogger(EmotionSearchIndex.class);
+
+    private static final int GRAM_SIZE = 2;
+
+    // DB 접근을 위한 객체
+    private final DataSource dataSource;
+
+    // 검색 인덱스 사용 여부 (false면 기존 LIKE 검색)
+    private final boolean enabled;
+
+    // 아이디별 원문
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    // n-gram별 아이디 목록
+    private final Map<String, Set<Long>> contentPostings = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> subjectPostings = new ConcurrentHashMap<>();
+
+    // 이 값보다 작은 아이디는 버킷 비우기로 모두 지워졌다. (늦게 도착한 등록/수정 이벤트로 다시 색인하지 않는다)
+    private long purgedBelow;
+
+    // 등록 이벤트보다 먼저 도착한 수정/삭제/만료 (다른 요청 스레드에서 등록 이벤트가 늦게 발행됨)
+    // 등록 이벤트가 오면 등록 값에 이어서 적용하고, 결과가 null(물리 삭제)이면 색인하지 않는다.
+    // (이미 물리 삭제한 행에 늦게 온 변경도 여기 남지만 드물고, 버킷 저장소면 버킷을 비울 때 같이 지운다)
+    private final Map<Long, UnaryOperator<Document>> earlyChanges = new HashMap<>();
+
+    private record Document(String content, String subject, String useYn) {
+    }
+
+    private record Match(long id, int score) {
+    }
+
+    public EmotionSearchIndex(DataSource dataSource, @Value("${emotion.search.enabled:true}") boolean enabled) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 기동 시 테이블 전체를 읽어서 색인
+    @PostConstruct
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        long startMillis = System.currentTimeMillis();
+        String sql = "SELECT ID, CONTENT, SUBJECT, USE_YN FROM EMOTIONS";
+        try (Connection connection = dataSource.getConnection();
+            PreparedStatement preparedStatement = connection.prepareStatement(sql);
+            ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                put(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3), resultSet.getString(4));
+            }
+        } catch (Exception e) {
+            logger.error("검색 인덱스 생성 실패::{}", e.getMessage());
+        }
+        logger.info("검색 인덱스 생성 완료::documentCount={}, gramCount={}, elapsedMillis={}", documents.size(), contentPostings.size(), System.currentTimeMillis() - startMillis);
+    }
+
+    // 등록/수정/삭제/만료 시 색인 갱신
+    @EventListener
+    public void onChanged(EmotionChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        switch (event.type()) {
+            case CREATED -> create(event.id(), new Document(event.content(), event.subject(), event.useYn()));
+            case UPDATED -> change(event.id(), previous -> new Document(event.content(), event.subject(), event.useYn()));
+            case PATCHED -> change(event.id(), previous -> new Document(
+                event.content() != null ? event.content() : previous.content(),
+                event.subject() != null ? event.subject() : previous.subject(),
+                event.useYn() != null ? event.useYn() : previous.useYn()));
+            case DELETED, EXPIRED -> change(event.id(), previous -> new Document(previous.content(), previous.subject(), "N"));
+            case PURGED -> change(event.id(), previous -> null);
+        }
+    }
+
+    // 버킷 비우기 시 비운 아이디 범위를 한 번에 색인에서 뺀다.
+    @EventListener
+    public synchronized void onBucketPurged(EmotionBucketPurgedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        purgedBelow = Math.max(purgedBelow, event.toId() + 1);
+        for (long id = event.fromId(); id <= event.toId(); id++) {
+            remove(id);
+        }
+        earlyChanges.keySet().removeIf(id -> id < purgedBelow);
+    }
+
+    // 검색 조건에 맞는 아이디 목록 (검색어가 많이 나올수록, 같으면 최신 순)
+    // content, subject 중 값이 없는 조건은 무시하고, useYn이 있으면 사용여부도 같이 거른다.
+    public List<Long> search(String content, String subject, String useYn) {
+        boolean hasContent = content != null && !content.trim().isEmpty();
+        boolean hasSubject = subject != null && !subject.trim().isEmpty();
+        boolean hasUseYn = useYn != null && !useYn.trim().isEmpty();
+
+        Set<Long> candidates = null;
+        if (hasContent) {
+            candidates = candidates(content, contentPostings, null);
+        }
+        if (hasSubject) {
+            candidates = candidates(subject, subjectPostings, candidates);
+        }
+        if (candidates == null) {
+            candidates = documents.keySet();
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (Long id : candidates) {
+            Document document = documents.get(id);
+            if (document == null) {
+                continue;
+            }
+            if (hasUseYn && !useYn.equals(document.useYn())) {
+                continue;
+            }
+
+            int score = 0;
+            if (hasContent) {
+                int count = countOccurrences(document.content(), content);
+                if (count == 0) {
+                    continue;
+                }
+                score += count;
+            }
+            if (hasSubject) {
+                int count = countOccurrences(document.subject(), subject);
+                if (count == 0) {
+                    continue;
+                }
+                score += count;
+            }
+            matches.add(new Match(id, score));
+        }
+
+        matches.sort(Comparator.comparingInt(Match::score).reversed().thenComparing(Comparator.comparingLong(Match::id).reversed()));
+
+        List<Long> ids = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            ids.add(match.id());
+        }
+        return ids;
+    }
+
+    // 검색어의 n-gram을 모두 가진 아이디 (within이 있으면 그 안에서만)
+    private Set<Long> candidates(String keyword, Map<String, Set<Long>> postings, Set<Long> within) {
+        // 검색어가 n-gram보다 짧으면 후보를 줄일 수 없다.
+        if (keyword.length() < GRAM_SIZE) {
+            return within != null ? within : documents.keySet();
+        }
+
+        // 가장 짧은 목록을 기준으로 나머지 목록에 모두 있는지 확인
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(keyword)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            lists.add(ids);
+        }
+        if (within != null) {
+            lists.add(within);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>();
+        for (Long id : lists.get(0)) {
+            boolean matched = true;
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(id)) {
+                    matched = false;
+                    break;
+                }
+            }
+            if (matched) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    // 색인 추가 (이미 있으면 기존 색인을 지우고 다시 추가)
+    private synchronized void put(long id, String content, String subject, String useYn) {
+        if (id < purgedBelow) {
+            return;
+        }
+        Document previous = documents.put(id, new Document(content, subject, useYn));
+        if (previous != null) {
+            unindex(id, previous.content(), contentPostings);
+            unindex(id, previous.subject(), subjectPostings);
+        }
+        index(id, content, contentPostings);
+        index(id, subject, subjectPostings);
+    }
+
+    // 등록 (먼저 도착한 수정/삭제가 있으면 이어서 적용)
+    private synchronized void create(long id, Document document) {
+        UnaryOperator<Document> early = earlyChanges.remove(id);
+        Document value = early == null ? document : early.apply(document);
+        if (value != null) {
+            put(id, value.content(), value.subject(), value.useYn());
+        }
+    }
+
+    // 이전 값을 바꿔서 다시 색인 (null이면 색인에서 뺀다)
+    // 아직 등록 이벤트가 오지 않은 아이디면 바꿀 내용만 담아 둔다.
+    private synchronized void change(long id, UnaryOperator<Document> change) {
+        if (id < purgedBelow) {
+            return;
+        }
+        Document previous = documents.get(id);
+        if (previous == null) {
+            earlyChanges.merge(id, change, (first, then) -> document -> {
+                Document changed = first.apply(document);
+                return changed == null ? null : then.apply(changed);
+            });
+            return;
+        }
+        Document next = change.apply(previous);
+        if (next == null) {
+            remove(id);
+        } else {
+            put(id, next.content(), next.subject(), next.useYn());
+        }
+    }
+
+    private synchronized void remove(long id) {
+        Document previous = documents.remove(id);
+        if (previous != null) {
+            unindex(id, previous.content(), contentPostings);
+            unindex(id, previous.subject(), subjectPostings);
+        }
+    }
+
+    private void index(long id, String text, Map<String, Set<Long>> postings) {
+        for (String gram : grams(text)) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private void unindex(long id, String text, Map<String, Set<Long>> postings) {
+        for (String gram : grams(text)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram, ids);
+                }
+            }
+        }
+    }
+
+    // 2글자씩 자른 n-gram 목록 (중복 제거)
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        if (text == null) {
+            return grams;
+        }
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    // 검색어가 나온 횟수
+    private static int countOccurrences(String text, String keyword) {
+        if (text == null) {
+            return 0;
+        }
+        int count = 0;
+        int index = text.indexOf(keyword);
+        while (index >= 0) {
+            count += 1;
+            index = text.indexOf(keyword, index + 1);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,299 @@
+package com.ggomi.emotion_trash;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+// 주제별 감정 건수 통계 (메모리 카운터)
+// 기동 시 테이블 전체를 읽어서 채우고, 이후에는 등록/수정/삭제/만료 이벤트로 증감만 하므로 조회할 때 DB를 읽지 않는다.
+// 주제 x 사용여부별 전체 건수와, 등록 시각 기준 분/시/일 구간별 건수를 센다.
+// 구간별 건수는 단위마다 정해진 개수(emotion.stats.retention.*)의 최근 구간만 남기고 오래된 구간은 주기적으로 지운다.
+@Component
+@DependsOnDatabaseInitialization // schema.sql, data.sql 실행 후 집계
+@DependsOn("emotionBuckets") // 버킷 저장소면 버킷 테이블과 EMOTIONS 뷰를 만든 뒤 집계
+public class EmotionStats {
+    // 로거 객체 생성
+    private Logger logger = LoggerFactory.getLogger(EmotionStats.class);
+
+    // 구간 단위 (기간을 주지 않으면 최근 defaultBuckets 개 구간을 조회)
+    public enum Granularity {
+        MINUTE(ChronoUnit.MINUTES, 60),
+        HOUR(ChronoUnit.HOURS, 24),
+        DAY(ChronoUnit.DAYS, 30);
+
+        private final ChronoUnit unit;
+        private final int defaultBuckets;
+
+        Granularity(ChronoUnit unit, int defaultBuckets) {
+            this.unit = unit;
+            this.defaultBuckets = defaultBuckets;
+        }
+
+        // 구간 시작 시각 (10:23:45 -> 분: 10:23, 시: 10:00)
+        public LocalDateTime truncate(LocalDateTime dateTime) {
+            return dateTime.truncatedTo(unit);
+        }
+
+        public LocalDateTime defaultFrom(LocalDateTime to) {
+            return to.minus(defaultBuckets - 1, unit);
+        }
+
+        // 최근 count 개 구간의 첫 구간 시작 시각
+        private LocalDateTime firstOf(LocalDateTime now, int count) {
+            return truncate(now).minus(count - 1, unit);
+        }
+    }
+
+    // 감정 한 건의 집계 기준 값
+    // early 는 등록 이벤트보다 먼저 도착한 수정/삭제이다. 등록 이벤트가 오면 등록 값에 이어서 적용하고, 그 전까지는 세지 않는다.
+    private record Row(String subject, String useYn, LocalDateTime regDtm, UnaryOperator<Row> early) {
+
+        Row(String subject, String useYn, LocalDateTime regDtm) {
+            this(subject, useYn, regDtm, null);
+        }
+
+        boolean counted() {
+            return early == null;
+        }
+    }
+
+    // 카운터 구분 (주제, 사용여부)
+    private record CountKey(String subject, String useYn) {
+    }
+
+    // DB 접근을 위한 객체
+    private final DataSource dataSource;
+
+    // 통계 사용 여부
+    private final boolean enabled;
+
+    // 구간 단위별 남겨둘 구간 개수 (기본 조회 구간 개수보다 적을 수 없다)
+    private final Map<Granularity, Integer> retentions = new EnumMap<>(Granularity.class);
+
+    // 아이디별 집계 기준 값 (수정/삭제 시 이전 값의 카운터를 빼기 위해 보관)
+    private final Map<Long, Row> rows = new ConcurrentHashMap<>();
+    // 전체 건수
+    private final Map<CountKey, LongAdder> totals = new ConcurrentHashMap<>();
+    // 구간 단위별 -> 구간 시작 시각별 건수 (기간 조회를 위해 시각 순으로 정렬)
+    private final Map<Granularity, ConcurrentNavigableMap<LocalDateTime, Map<CountKey, LongAdder>>> buckets = new EnumMap<>(Granularity.class);
+
+    // 이 값보다 작은 아이디는 버킷 비우기로 모두 지워졌다. (늦게 도착한 등록 이벤트로 다시 세지 않는다)
+    private volatile long purgedBelow;
+
+    public EmotionStats(
+        DataSource dataSource,
+        @Value("${emotion.stats.enabled:true}") boolean enabled,
+        @Value("${emotion.stats.retention.minute:1440}") int minuteRetention,
+        @Value("${emotion.stats.retention.hour:720}") int hourRetention,
+        @Value("${emotion.stats.retention.day:365}") int dayRetention
+    ) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        retentions.put(Granularity.MINUTE, Math.max(minuteRetention, Granularity.MINUTE.defaultBuckets));
+        retentions.put(Granularity.HOUR, Math.max(hourRetention, Granularity.HOUR.defaultBuckets));
+        retentions.put(Granularity.DAY, Math.max(dayRetention, Granularity.DAY.defaultBuckets));
+        for (Granularity granularity : Granularity.values()) {
+            buckets.put(granularity, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 기동 시 테이블 전체를 읽어서 집계
+    @PostConstruct
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        long startMillis = System.currentTimeMillis();
+        String sql = "SELECT ID, SUBJECT, USE_YN, REG_DTM FROM EMOTIONS";
+        try (Connection connection = dataSource.getConnection();
+            PreparedStatement preparedStatement = connection.prepareStatement(sql);
+            ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                apply(resultSet.getLong(1), new Row(resultSet.getString(2), resultSet.getString(3), resultSet.getTimestamp(4).toLocalDateTime()));
+            }
+        } catch (Exception e) {
+            logger.error("통계 집계 실패::{}", e.getMessage());
+        }
+        logger.info("통계 집계 완료::rowCount={}, elapsedMillis={}", rows.size(), System.currentTimeMillis() - startMillis);
+    }
+
+    // 등록/수정/삭제/만료 시 카운터 증감
+    @EventListener
+    public void onChanged(EmotionChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        switch (event.type()) {
+            case CREATED -> apply(event.id(), new Row(event.subject(), event.useYn(), event.regDtm()));
+            case UPDATED -> update(event.id(), previous -> new Row(event.subject(), event.useYn(), previous.regDtm()));
+            case PATCHED -> update(event.id(), previous -> new Row(
+                event.subject() != null ? event.subject() : previous.subject(),
+                event.useYn() != null ? event.useYn() : previous.useYn(),
+                previous.regDtm()));
+            case DELETED, EXPIRED -> update(event.id(), previous -> new Row(previous.subject(), "N", previous.regDtm()));
+            case PURGED -> apply(event.id(), null);
+        }
+    }
+
+    // 버킷 비우기 시 비운 아이디 범위의 카운터를 한 번에 뺀다. (버킷 비우기는 스케줄러 한 곳에서만 발행)
+    // 기준 값을 먼저 올려 두고 아이디마다 compute 로 지우므로, 같은 아이디의 등록과 겹쳐도 카운터가 남지 않는다.
+    @EventListener
+    public void onBucketPurged(EmotionBucketPurgedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        purgedBelow = Math.max(purgedBelow, event.toId() + 1);
+        for (long id = event.fromId(); id <= event.toId(); id++) {
+            apply(id, null);
+        }
+    }
+
+    // 남겨둔 가장 오래된 구간 시작 시각 (이보다 이전 구간은 조회할 수 없다)
+    public LocalDateTime retainedFrom(Granularity granularity) {
+        return granularity.firstOf(LocalDateTime.now(), retentions.get(granularity));
+    }
+
+    // 남겨둘 구간보다 오래된 구간 지우기
+    @Scheduled(fixedDelayString = "${emotion.stats.prune-ms:60000}")
+    public void prune() {
+        if (!enabled) {
+            return;
+        }
+        for (Granularity granularity : Granularity.values()) {
+            ConcurrentNavigableMap<LocalDateTime, Map<CountKey, LongAdder>> expired = buckets.get(granularity).headMap(retainedFrom(granularity));
+            if (!expired.isEmpty()) {
+                logger.debug("통계 구간 정리::granularity={}, bucketCount={}", granularity, expired.size());
+                expired.clear();
+            }
+        }
+    }
+
+    // 주제별 전체 건수 (subject가 있으면 해당 주제만)
+    public List<Map<String, Object>> subjectCounts(String subject) {
+        return counts(totals, subject, null);
+    }
+
+    // 구간별 주제별 건수 (from ~ to 구간, 둘 다 구간 시작 시각 기준)
+    public List<Map<String, Object>> bucketCounts(Granularity granularity, LocalDateTime from, LocalDateTime to, String subject) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        buckets.get(granularity).subMap(granularity.truncate(from), true, granularity.truncate(to), true)
+            .forEach((bucket, counters) -> results.addAll(counts(counters, subject, bucket)));
+        return results;
+    }
+
+    // 주제별로 사용 중(Y)/사용 안 함(N) 건수를 묶는다. (주제 이름 순, 주제 없음은 마지막)
+    private List<Map<String, Object>> counts(Map<CountKey, LongAdder> counters, String subject, LocalDateTime bucket) {
+        Map<String, long[]> bySubject = new TreeMap<>(Comparator.nullsLast(Comparator.naturalOrder()));
+        counters.forEach((key, counter) -> {
+            if (subject != null && !subject.equals(key.subject())) {
+                return;
+            }
+            long[] counts = bySubject.computeIfAbsent(key.subject(), k -> new long[2]);
+            counts["Y".equals(key.useYn()) ? 0 : 1] += counter.sum();
+        });
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        bySubject.forEach((key, counts) -> {
+            if (counts[0] == 0 && counts[1] == 0) {
+                return;
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            if (bucket != null) {
+                result.put("bucket", bucket);
+            }
+            result.put("subject", key);
+            result.put("activeCount", counts[0]);
+            result.put("inactiveCount", counts[1]);
+            results.add(result);
+        });
+        return results;
+    }
+
+    // 이전 값을 바꿔서 카운터를 옮긴다.
+    // 등록 이벤트가 아직 오지 않았으면(다른 요청 스레드에서 등록 이벤트가 늦게 발행됨) 바꿀 내용만 담아 두고 등록 때 적용한다.
+    // 아이디별로 바꾸는 동안만 잠그므로(ConcurrentHashMap.compute) 다른 아이디의 변경은 동시에 카운터를 증감한다.
+    private void update(long id, UnaryOperator<Row> change) {
+        rows.compute(id, (key, previous) -> {
+            if (id < purgedBelow) {
+                return previous;
+            }
+            if (previous == null) {
+                return new Row(null, null, null, change);
+            }
+            if (!previous.counted()) {
+                UnaryOperator<Row> early = previous.early();
+                return new Row(null, null, null, row -> change.apply(early.apply(row)));
+            }
+            Row next = change.apply(previous);
+            add(previous, -1);
+            add(next, 1);
+            return next;
+        });
+    }
+
+    // 이전 값의 카운터를 빼고 새 값의 카운터를 더한다. (next가 null이거나 이미 비운 버킷의 아이디면 삭제)
+    private void apply(long id, Row next) {
+        rows.compute(id, (key, previous) -> {
+            Row value = id < purgedBelow ? null : next;
+            if (previous != null && !previous.counted()) {
+                // 먼저 도착한 수정/삭제를 등록 값에 이어서 적용
+                value = value == null ? null : previous.early().apply(value);
+            } else if (previous != null) {
+                add(previous, -1);
+            }
+            if (value != null) {
+                add(value, 1);
+            }
+            return value;
+        });
+    }
+
+    // 남겨둘 구간보다 오래된 구간은 새로 만들지 않고, 이미 지운 구간에서는 빼지 않는다.
+    private void add(Row row, long delta) {
+        CountKey key = new CountKey(row.subject(), row.useYn());
+        totals.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        for (Granularity granularity : Granularity.values()) {
+            ConcurrentNavigableMap<LocalDateTime, Map<CountKey, LongAdder>> granularityBuckets = buckets.get(granularity);
+            LocalDateTime bucket = granularity.truncate(row.regDtm());
+            Map<CountKey, LongAdder> counters = delta > 0 && !bucket.isBefore(retainedFrom(granularity))
+                ? granularityBuckets.computeIfAbsent(bucket, k -> new ConcurrentHashMap<>())
+                : granularityBuckets.get(bucket);
+            if (counters != null) {
+                counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.ggomi.emotion_trash;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// 감정 테이블이 차지하는 저장 공간 메트릭
+// 메모리 DB와 파일 DB(prod 프로필)의 용량을 같은 기준으로 비교하기 위해 H2의 DISK_SPACE_USED 값을 노출한다.
+@Component
+public class EmotionStorageMetrics {
+    // 로거 객체 생성
+    private Logger logger = LoggerFactory.getLogger(EmotionStorageMetrics.class);
+
+    // 버킷 저장소(EmotionBuckets)면 EMOTIONS 는 뷰이므로 버킷 테이블(EMOTIONS_B0 ~)을 합산한다.
+    private static final String DISK_SPACE_SQL = "SELECT SUM(DISK_SPACE_USED(TABLE_NAME)) FROM INFORMATION_SCHEMA.TABLES "
+        + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE' AND (TABLE_NAME = 'EMOTIONS' OR TABLE_NAME LIKE 'EMOTIONS_B%')";
+
+    // DB 접근을 위한 객체
+    private final DataSource dataSource;
+
+    public EmotionStorageMetrics(DataSource dataSource, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+
+        Gauge.builder("emotion.storage.used", this, EmotionStorageMetrics::diskSpaceUsed)
+            .description("감정 테이블(인덱스 포함)이 차지하는 저장 공간")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    private double diskSpaceUsed() {
+        try (Connection connection = dataSource.getConnection();
+            PreparedStatement preparedStatement = connection.prepareStatement(DISK_SPACE_SQL);
+            ResultSet resultSet = preparedStatement.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : Double.NaN;
+        } catch (Exception e) {
+            logger.debug("저장 공간 조회 실패::{}", e.getMessage());
+            return Double.NaN;
+        }
+    }
+}
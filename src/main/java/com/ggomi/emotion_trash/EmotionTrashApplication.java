@@ -2,6 +2,7 @@ package com.ggomi.emotion_trash;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableScheduling
@@ -9,7 +10,10 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 public class EmotionTrashApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(EmotionTrashApplication.class, args);
+		SpringApplication application = new SpringApplication(EmotionTrashApplication.class);
+		// 기동 단계별 소요 시간 기록 (/actuator/startup)
+		application.setApplicationStartup(new BufferingApplicationStartup(2048));
+		application.run(args);
 	}
 
 }
@@ -1,17 +1,39 @@
 package com.ggomi.emotion_trash;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 import javax.sql.DataSource;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,15 +42,26 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 
 @Tag(name = "감정 쓰레기통 API", description = "감정을 여기에 버려두세요.")
 @RestController
@@ -39,14 +72,82 @@ public class EmotionTrashContorller {
     // DB 접근을 위한 객체
     private final DataSource dataSource;
 
-    public EmotionTrashContorller(DataSource dataSource) {
+    // 테이블 선택 (버킷 저장소면 아이디/등록 시점에 맞는 버킷 테이블)
+    private final EmotionBuckets buckets;
+
+    // CONTENT, SUBJECT 검색 인덱스
+    private final EmotionSearchIndex searchIndex;
+
+    // 상세 조회 캐시
+    private final EmotionCache emotionCache;
+
+    // 상세 조회는 캐시에 없어서 DB를 읽을 때만 자리를 얻는다.
+    private final EmotionBulkheads bulkheads;
+
+    // 주제별 통계
+    private final EmotionStats emotionStats;
+
+    // 실시간 피드
+    private final EmotionFeedHub feedHub;
+
+    // 비동기 등록 큐
+    private final EmotionWriteBehind writeBehind;
+
+    // 등록/수정/삭제 이벤트 발행
+    private final ApplicationEventPublisher eventPublisher;
+
+    // NDJSON 한 줄씩 변환, 목록 조회 스트리밍
+    private final ObjectMapper objectMapper;
+
+    // 목록 조회 행 수 메트릭
+    private final MeterRegistry meterRegistry;
+
+    private final int bulkBatchSize; // 일괄 등록 시 한 번에 보내는 INSERT 건수
+    private final int bulkMaxItems; // 일괄 등록 요청 한 번에 받을 수 있는 최대 건수
+    private final int exportFetchSize; // 내보내기 시 DB에서 한 번에 가져올 행 수
+    private final int searchMaxBoundIds; // 검색 결과를 DB에서 다시 정렬할 때 ID = ANY(?)로 넘길 최대 아이디 수
+
+    public EmotionTrashContorller(
+        DataSource dataSource,
+        EmotionBuckets buckets,
+        EmotionSearchIndex searchIndex,
+        EmotionCache emotionCache,
+        EmotionBulkheads bulkheads,
+        EmotionStats emotionStats,
+        EmotionFeedHub feedHub,
+        EmotionWriteBehind writeBehind,
+        ApplicationEventPublisher eventPublisher,
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry,
+        @Value("${emotion.bulk.batch-size:500}") int bulkBatchSize,
+        @Value("${emotion.bulk.max-items:10000}") int bulkMaxItems,
+        @Value("${emotion.export.fetch-size:1000}") int exportFetchSize,
+        @Value("${emotion.search.max-bound-ids:1000}") int searchMaxBoundIds
+    ) {
         this.dataSource = dataSource;
+        this.buckets = buckets;
+        this.searchIndex = searchIndex;
+        this.emotionCache = emotionCache;
+        this.bulkheads = bulkheads;
+        this.emotionStats = emotionStats;
+        this.feedHub = feedHub;
+        this.writeBehind = writeBehind;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.bulkBatchSize = bulkBatchSize;
+        this.bulkMaxItems = bulkMaxItems;
+        this.exportFetchSize = exportFetchSize;
+        this.searchMaxBoundIds = searchMaxBoundIds;
     }
 
     @ApiResponse(responseCode = "201", description = "감정 버리기 성공")
+    @ApiResponse(responseCode = "202", description = "감정 버리기 접수 (비동기 등록 모드)")
     @ApiResponse(responseCode = "400", description = "밸리데이션 실패")
+    @ApiResponse(responseCode = "429", description = "등록 대기열이 가득 참 (비동기 등록 모드)")
     @ApiResponse(responseCode = "500", description = "내부 서버 오류")
     @Operation(summary = "감정 쓰레기통에 등록", description = "감정 쓰레기통에 등록")
+    @EmotionBulkhead(EmotionBulkheads.Kind.WRITE)
     @PostMapping("/emotions")
     public ResponseEntity<?> create(
         @io.swagger.v3.oas.annotations.parameters.RequestBody(
@@ -56,31 +157,44 @@ public class EmotionTrashContorller {
         )
         @RequestBody Map<String, String> params
     ) {
-        logger.info("감정 정보 등록 요청 수신::{}", params);
+        logger.info("감정 정보 등록 요청 수신::{}", summarize(params));
 
         // 파라미터 추출
         String content = params.get("content"); // 내용
         String subject = params.get("subject"); // 주제
 
         // 밸리데이션 체크
-        // 필수 값 체크
-        if (content == null || content.trim().isEmpty()) {
-            return ResponseEntity.badRequest().body("내용(content)은 필수 값입니다.");
+        String message = validateCreate(content, subject);
+        if (message != null) {
+            return ResponseEntity.badRequest().body(message);
         }
 
-        // 길이 체크
-        if (content.length() > 1000) {
-            return ResponseEntity.badRequest().body("내용(content)의 길이는 1000을 초과할 수 없습니다.");
-        }
-        if (subject != null && subject.length() > 100) {
-            return ResponseEntity.badRequest().body("주제(subject)의 길이는 100을 초과할 수 없습니다.");
+        // 비동기 등록 모드 : 큐에 넣고 아이디만 먼저 응답 (저장은 쓰기 스레드가 모아서 처리)
+        if (writeBehind.isEnabled()) {
+            try {
+                long id = writeBehind.enqueue(content, subject);
+                if (id < 0) {
+                    return ResponseEntity.status(429).body("등록 요청이 많습니다. 잠시 후 다시 시도해 주세요.");
+                }
+                logger.info("감정 정보 등록 접수::{}", id);
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("id", id);
+                body.put("message", "신규 등록이 접수되었습니다.");
+                return ResponseEntity.status(202).body(body);
+            } catch (Exception e) {
+                logger.error("감정 정보 등록 접수 실패::{}", e.getMessage());
+                return ResponseEntity.internalServerError().body("신규 등록에 실패했습니다.");
+            }
         }
 
-        String sql = "INSERT INTO EMOTIONS (CONTENT, SUBJECT) VALUES (?, ?)";
+        // 버킷 저장소면 쓰는 중인 버킷 테이블에 등록 (등록 시각은 이벤트에도 같은 값을 담도록 여기서 정한다)
+        String sql = "INSERT INTO " + buckets.acquireInsertTable() + " (CONTENT, SUBJECT, REG_DTM) VALUES (?, ?, ?)";
+        Timestamp regDtm = new Timestamp(System.currentTimeMillis());
         try (Connection connection = dataSource.getConnection();
-            PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            PreparedStatement preparedStatement = connection.prepareStatement(sql, new String[] {"ID"})) {
             preparedStatement.setString(1, content);
             preparedStatement.setString(2, subject);
+            preparedStatement.setTimestamp(3, regDtm);
 
             int createdCount = preparedStatement.executeUpdate();
             if (createdCount == 0) {
@@ -88,17 +202,223 @@ public class EmotionTrashContorller {
             }
             logger.debug("createdCount::{}", createdCount);
 
+            // 생성된 아이디로 검색 인덱스 등에 알린다.
+            try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    eventPublisher.publishEvent(new EmotionChangedEvent(EmotionChangedEvent.Type.CREATED, generatedKeys.getLong(1), content, subject, "Y", regDtm.toLocalDateTime()));
+                }
+            }
+
             logger.info("감정 정보 등록 완료::{}", createdCount);
             return ResponseEntity.status(201).body("신규 등록에 성공했습니다.");
         } catch (Exception e) {
             logger.error("감정 정보 등록 실패::{}", e.getMessage());
             return ResponseEntity.internalServerError().body("신규 등록에 실패했습니다.");
+        } finally {
+            buckets.releaseInsertTable();
+        }
+    }
+
+    // 요청 로그 요약 (사용자가 쓴 감정 내용은 로그에 그대로 남기지 않고 글자 수만 남긴다)
+    private String summarize(Map<String, String> params) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        params.forEach((key, value) -> summary.put(key, "content".equals(key) ? textLength(value) : value));
+        return summary.toString();
+    }
+
+    private String textLength(String text) {
+        return text == null ? null : "(" + text.length() + "자)";
+    }
+
+    // 등록 밸리데이션 체크 (문제가 없으면 null, 있으면 안내 메세지)
+    private String validateCreate(String content, String subject) {
+        // 필수 값 체크
+        if (content == null || content.trim().isEmpty()) {
+            return "내용(content)은 필수 값입니다.";
+        }
+
+        // 길이 체크
+        if (content.length() > 1000) {
+            return "내용(content)의 길이는 1000을 초과할 수 없습니다.";
+        }
+        if (subject != null && subject.length() > 100) {
+            return "주제(subject)의 길이는 100을 초과할 수 없습니다.";
+        }
+        return null;
+    }
+
+    @ApiResponse(responseCode = "200", description = "감정 일괄 등록 처리 (항목별 결과 확인)")
+    @ApiResponse(responseCode = "400", description = "요청 건수 초과")
+    @ApiResponse(responseCode = "500", description = "내부 서버 오류 (전체 롤백)")
+    @Operation(summary = "감정 쓰레기통에 일괄 등록", description = "JSON 배열로 여러 감정을 한 번에 등록")
+    @EmotionBulkhead(EmotionBulkheads.Kind.WRITE)
+    @PostMapping(value = "/emotions/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> createBulk(
+        @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "감정 정보 목록",
+            required = true,
+            content = @Content(schema = @Schema(example = "[{\"content\":\"다들 나만 미워해\", \"subject\":\"불만\"}, {\"content\":\"월요일이 싫다\", \"subject\":\"불만\"}]"))
+        )
+        @RequestBody List<Map<String, String>> items
+    ) {
+        logger.info("감정 정보 일괄 등록 요청 수신::itemCount={}", items.size());
+        return insertBulk(items);
+    }
+
+    @ApiResponse(responseCode = "200", description = "감정 일괄 등록 처리 (항목별 결과 확인)")
+    @ApiResponse(responseCode = "400", description = "요청 건수 초과")
+    @ApiResponse(responseCode = "500", description = "내부 서버 오류 (전체 롤백)")
+    @Operation(summary = "감정 쓰레기통에 일괄 등록 (NDJSON)", description = "한 줄에 감정 하나씩(NDJSON) 여러 감정을 한 번에 등록")
+    @EmotionBulkhead(EmotionBulkheads.Kind.WRITE)
+    @PostMapping(value = "/emotions/bulk", consumes = "application/x-ndjson")
+    public ResponseEntity<?> createBulkNdjson(InputStream inputStream) {
+        List<Map<String, String>> items = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // 빈 줄은 건너뛴다.
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                if (items.size() >= bulkMaxItems) {
+                    return ResponseEntity.badRequest().body("일괄 등록은 한 번에 " + bulkMaxItems + "건을 초과할 수 없습니다.");
+                }
+                try {
+                    items.add(objectMapper.readValue(line, new TypeReference<Map<String, String>>() {}));
+                } catch (JsonProcessingException e) {
+                    // 형식이 잘못된 줄은 해당 항목만 실패 처리
+                    items.add(null);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("감정 정보 일괄 등록 요청 읽기 실패::{}", e.getMessage());
+            return ResponseEntity.internalServerError().body("일괄 등록에 실패했습니다.");
+        }
+
+        logger.info("감정 정보 일괄 등록 요청 수신(NDJSON)::itemCount={}", items.size());
+        return insertBulk(items);
+    }
+
+    // 일괄 등록
+    // 항목마다 밸리데이션을 하고, 통과한 항목만 batchSize 단위로 addBatch/executeBatch 해서 한 트랜잭션으로 등록한다.
+    private ResponseEntity<?> insertBulk(List<Map<String, String>> items) {
+        if (items.isEmpty()) {
+            return ResponseEntity.badRequest().body("등록할 감정이 없습니다.");
+        }
+        if (items.size() > bulkMaxItems) {
+            return ResponseEntity.badRequest().body("일괄 등록은 한 번에 " + bulkMaxItems + "건을 초과할 수 없습니다.");
+        }
+
+        // 항목별 결과 (index, status, id 또는 message)
+        List<Map<String, Object>> results = new ArrayList<>();
+        // 생성된 아이디 (항목 순번, 아이디)
+        Map<Integer, Long> createdIds = new LinkedHashMap<>();
+
+        // 버킷 저장소면 쓰는 중인 버킷 테이블에 등록 (커밋할 때까지 새 버킷을 열지 않는다)
+        // 한 요청의 항목은 모두 같은 등록 시각으로 저장하고 이벤트에도 같은 값을 담는다.
+        String sql = "INSERT INTO " + buckets.acquireInsertTable() + " (CONTENT, SUBJECT, REG_DTM) VALUES (?, ?, ?)";
+        Timestamp regDtm = new Timestamp(System.currentTimeMillis());
+        try (Connection connection = dataSource.getConnection();
+            PreparedStatement preparedStatement = connection.prepareStatement(sql, new String[] {"ID"})) {
+            connection.setAutoCommit(false);
+            try {
+                // 배치에 담긴 항목 순번
+                List<Integer> batchIndexes = new ArrayList<>();
+                for (int i = 0; i < items.size(); i++) {
+                    Map<String, String> item = items.get(i);
+                    Map<String, Object> result = new LinkedHashMap<>();
+                    result.put("index", i);
+                    results.add(result);
+
+                    String message = item == null ? "JSON 형식이 올바르지 않습니다." : validateCreate(item.get("content"), item.get("subject"));
+                    if (message != null) {
+                        result.put("status", 400);
+                        result.put("message", message);
+                        continue;
+                    }
+
+                    preparedStatement.setString(1, item.get("content"));
+                    preparedStatement.setString(2, item.get("subject"));
+                    preparedStatement.setTimestamp(3, regDtm);
+                    preparedStatement.addBatch();
+                    batchIndexes.add(i);
+
+                    if (batchIndexes.size() >= bulkBatchSize) {
+                        executeBulkBatch(preparedStatement, batchIndexes, createdIds);
+                    }
+                }
+                executeBulkBatch(preparedStatement, batchIndexes, createdIds);
+
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (Exception e) {
+            logger.error("감정 정보 일괄 등록 실패::{}", e.getMessage());
+            // 전체 롤백되었으므로 밸리데이션을 통과한 항목도 모두 실패
+            for (Map<String, Object> result : results) {
+                if (!result.containsKey("status")) {
+                    result.put("status", 500);
+                    result.put("message", "신규 등록에 실패했습니다.");
+                }
+            }
+            return ResponseEntity.internalServerError().body(bulkResponse(results, 0));
+        } finally {
+            buckets.releaseInsertTable();
+        }
+
+        for (Map.Entry<Integer, Long> created : createdIds.entrySet()) {
+            Map<String, String> item = items.get(created.getKey());
+            Map<String, Object> result = results.get(created.getKey());
+            result.put("status", 201);
+            result.put("id", created.getValue());
+            eventPublisher.publishEvent(new EmotionChangedEvent(EmotionChangedEvent.Type.CREATED, created.getValue(), item.get("content"), item.get("subject"), "Y", regDtm.toLocalDateTime()));
+        }
+
+        // 밸리데이션을 통과한 항목은 커밋되었으므로 등록 성공
+        int createdCount = 0;
+        for (Map<String, Object> result : results) {
+            result.putIfAbsent("status", 201);
+            if (Integer.valueOf(201).equals(result.get("status"))) {
+                createdCount += 1;
+            }
+        }
+
+        logger.info("감정 정보 일괄 등록 완료::itemCount={}, createdCount={}", items.size(), createdCount);
+        return ResponseEntity.ok(bulkResponse(results, createdCount));
+    }
+
+    // 배치에 담긴 INSERT를 실행하고 생성된 아이디를 항목 순번과 연결
+    private void executeBulkBatch(PreparedStatement preparedStatement, List<Integer> batchIndexes, Map<Integer, Long> createdIds) throws SQLException {
+        if (batchIndexes.isEmpty()) {
+            return;
         }
+        preparedStatement.executeBatch();
+
+        try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+            int position = 0;
+            while (position < batchIndexes.size() && generatedKeys.next()) {
+                createdIds.put(batchIndexes.get(position++), generatedKeys.getLong(1));
+            }
+        }
+        logger.debug("bulkBatchCount::{}", batchIndexes.size());
+        batchIndexes.clear();
+    }
+
+    // 일괄 등록 응답 (등록 건수, 실패 건수, 항목별 결과)
+    private Map<String, Object> bulkResponse(List<Map<String, Object>> results, int createdCount) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("createdCount", createdCount);
+        body.put("failedCount", results.size() - createdCount);
+        body.put("results", results);
+        return body;
     }
 
     @ApiResponse(responseCode = "200", description = "감정 버리기 상세 조회 성공")
     @ApiResponse(responseCode = "400", description = "조회된 아이디가 없음을 안내")
     @ApiResponse(responseCode = "500", description = "내부 서버 오류")
+    @ApiResponse(responseCode = "503", description = "DB 동시 사용 제한 초과 (캐시에 없을 때만)")
     @Operation(summary = "감정 쓰레기통 목록 조회", description = "감정 쓰레기통 목록 조회")
     @GetMapping("/emotions/{id}")
     public ResponseEntity<?> findById (
@@ -107,7 +427,32 @@ public class EmotionTrashContorller {
         
         logger.info("감정 정보 상세 조회 아이디::{}", id);
 
-        String sql = "SELECT * FROM EMOTIONS WHERE ID = ?";
+        try {
+            // 캐시에 없을 때만 DB에서 조회
+            Emotion result = emotionCache.get(id, this::selectById);
+            if (result != null) {
+                // 클라이언트한테 보낼 값을 ok안에 담는다.
+                return ResponseEntity.ok(result);
+            }
+
+            return ResponseEntity.badRequest().body("해당 아이디를 가진 데이터가 없습니다.");
+        } catch (EmotionBulkheads.RejectedException e) {
+            logger.warn("{}, id={}", e.getMessage(), id);
+            return ResponseEntity.status(503).header("Retry-After", "1").body(EmotionBulkheads.REJECTED_MESSAGE);
+        } catch (Exception e) {
+            logger.error("상세 정보 조회 실패::{}", e.getMessage());
+            return ResponseEntity.internalServerError().body("상세 조회에 실패했습니다.");
+        }
+    }
+
+    // 아이디로 DB 조회 (없으면 null)
+    // 캐시 적중은 커넥션을 쓰지 않으므로 여기서만 상세 조회(point) 자리를 얻는다. (얻지 못하면 RejectedException)
+    private Emotion selectById(long id) {
+        if (!bulkheads.tryAcquire(EmotionBulkheads.Kind.POINT)) {
+            throw new EmotionBulkheads.RejectedException(EmotionBulkheads.Kind.POINT);
+        }
+
+        String sql = "SELECT " + Emotion.COLUMNS + " FROM " + buckets.tableOf(id) + " WHERE ID = ?";
         try (Connection connection = dataSource.getConnection();
             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setLong(1, id);
@@ -116,24 +461,14 @@ public class EmotionTrashContorller {
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 // 다음 결과물이 있으면
                 if(resultSet.next()) {
-                    // Map타입의 변수 선언<key의타입(컬럼명), value의 타입(컬럼의 타입)>
-                    Map<String, Object> result = new HashMap<>();
-                    result.put("ID", resultSet.getLong("ID"));
-                    result.put("CONTENT", resultSet.getString("CONTENT"));
-                    result.put("SUBJECT", resultSet.getString("SUBJECT"));
-                    result.put("USE_YN", resultSet.getString("USE_YN"));
-                    result.put("REG_DTM", resultSet.getTimestamp("REG_DTM"));
-                    result.put("MODI_DTM", resultSet.getTimestamp("MODI_DTM"));
-                
-                    // 클라이언트한테 보낼 값을 ok안에 담는다.
-                    return ResponseEntity.ok(result);
+                    return Emotion.from(resultSet);
                 }
             }
-            
-            return ResponseEntity.badRequest().body("해당 아이디를 가진 데이터가 없습니다.");
-        } catch (Exception e) {
-            logger.error("상세 정보 조회 실패::{}", e.getMessage());
-            return ResponseEntity.internalServerError().body("상세 조회에 실패했습니다.");
+            return null;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        } finally {
+            bulkheads.release(EmotionBulkheads.Kind.POINT);
         }
     }
 
@@ -141,6 +476,7 @@ public class EmotionTrashContorller {
     @ApiResponse(responseCode = "400", description = "조회된 아이디가 없음을 안내")
     @ApiResponse(responseCode = "500", description = "내부 서버 오류")
     @Operation(summary = "감정 쓰레기통 목록 조회", description = "감정 쓰레기통 목록 조회")
+    @EmotionBulkhead(EmotionBulkheads.Kind.SEARCH)
     @GetMapping("/emotions")
     public ResponseEntity<?> findAll (
         @RequestParam(name = "content", required = false) String content,
@@ -148,80 +484,330 @@ public class EmotionTrashContorller {
         @RequestParam(name = "useYn", required = false) String useYn,
         @RequestParam(name = "page", defaultValue = "1") int page,
         @RequestParam(name = "size", defaultValue = "10") int size,
-        @RequestParam(name = "sort", required = false) String sort
+        @RequestParam(name = "sort", required = false) String sort,
+        @Parameter(description = "커서 페이징(첫 페이지는 빈 값, 다음 페이지는 응답의 nextCursor)") @RequestParam(name = "cursor", required = false) String cursor,
+        @Parameter(hidden = true) HttpServletResponse response
     ) {
         // sort = "ID,DESC"
         // sort = "CONTENT,ASC"
-        logger.info("감정 정보 목록 조회::content={}, subject={}, useYn={}, page={}, size={}, sort={}", content, subject, useYn, page, size, sort);
+        // 커서에는 마지막 행의 정렬 값(CONTENT 일 수 있음)이 들어 있으므로 글자 수만 남긴다.
+        logger.info("감정 정보 목록 조회::content={}, subject={}, useYn={}, page={}, size={}, sort={}, cursor={}", textLength(content), subject, useYn, page, size, sort, textLength(cursor));
 
-        StringBuilder sql = new StringBuilder("SELECT * FROM EMOTIONS WHERE 1=1");
-        if (content != null && !content.trim().isEmpty()) {
-            sql.append(" AND CONTENT LIKE '%' || ? || '%'");
+        // 커서가 넘어오면 OFFSET 대신 마지막 행 다음부터 찾아가는 커서 페이징으로 조회
+        if (cursor != null) {
+            return findAllByCursor(content, subject, useYn, size, sort, cursor, response);
         }
-        if (subject != null && !subject.trim().isEmpty()) {
-            sql.append(" AND SUBJECT LIKE '%' || ? || '%'");
+
+        // 페이지 번호/크기 체크 (건너뛸 행 수는 long 으로 계산하므로 int 범위 안의 값이면 넘치지 않는다)
+        if (page < 1) {
+            return ResponseEntity.badRequest().body("페이지 번호(page)는 1 이상이어야 합니다.");
         }
-        if (useYn != null && !useYn.trim().isEmpty()) {
-            sql.append(" AND USE_YN = ?");
+        if (size < 1) {
+            return ResponseEntity.badRequest().body("페이지 크기(size)는 1 이상이어야 합니다.");
         }
-        
-        if (sort != null && !sort.trim().isEmpty()) {
-            // sort = "CONTENT,ASC";
-            String[] tokens = sort.split(","); // ["CONTENT", "ASC"]
-            String column = tokens[0]; // CONTENT
-            String direction = tokens[1]; // ASC
-
-            // ORDER BY CONTENT ASC
-            sql.append(" ORDER BY " + column + " " + direction);
-        } else {
-            sql.append(" ORDER BY ID DESC");
+
+        // 정렬 조건 (허용한 컬럼/방향만 받는다)
+        List<EmotionQueries.Order> orders;
+        try {
+            orders = EmotionQueries.parseSort(sort);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
 
+        // 검색 인덱스에서 검색 조건에 맞는 아이디를 먼저 찾는다. (LIKE '%검색어%'는 인덱스를 탈 수 없어 테이블 전체를 읽는다)
+        List<Long> matchedIds = searchMatchedIds(content, subject, useYn);
+
+        // 정렬 조건이 없으면 검색 점수 순, 아이디 순이면 아이디를 정렬해서 해당 페이지의 아이디만 조회
+        if (matchedIds != null && orders.isEmpty()) {
+            return findAllByIds(matchedIds, page, size, "rank");
+        }
+        if (matchedIds != null && orders.get(0).column() == EmotionQueries.SortColumn.ID) {
+            List<Long> sortedIds = new ArrayList<>(matchedIds);
+            sortedIds.sort(orders.get(0).descending() ? Comparator.reverseOrder() : Comparator.naturalOrder());
+            return findAllByIds(sortedIds, page, size, "offset");
+        }
+        // 그 외 정렬은 DB에서 정렬하므로 검색 결과가 많으면 아이디를 모두 넘기지 않고 LIKE 로 거른다.
+        matchedIds = boundIds(matchedIds);
+
         // [1 2 3 4 5] [6 7 8 9 10] [11 12 13 14 15]
+        // 아이디 순 정렬이면 버킷 저장소의 버킷을 아이디 순서대로 필요한 만큼만 읽고, 그 외 정렬은 EMOTIONS 전체에서 정렬한다.
+        boolean idOrder = orders.isEmpty() || orders.get(0).column() == EmotionQueries.SortColumn.ID;
+        List<String> tables = idOrder ? buckets.tablesInIdOrder(orders.isEmpty() || orders.get(0).descending()) : List.of(EmotionBuckets.TABLE);
+        int filters = EmotionQueries.filters(matchedIds, content, subject, useYn);
 
-        sql.append(" LIMIT ?");
-        sql.append(" OFFSET ?");
-        logger.debug("sql::{}", sql);
+        // List로 모으지 않고 한 행씩 바로 응답에 쓴다. (첫 조회가 성공한 뒤에 응답을 시작한다)
+        JsonGenerator generator = null;
+        try (Connection connection = dataSource.getConnection()) {
+            int count = 0;
+            // 테이블이 여러 개면 앞 테이블에서 몇 건을 건너뛰었는지 알 수 없으므로, OFFSET 대신 건너뛸 행까지 읽고 버린다.
+            long skip = (long) size * (page - 1);
+            for (String table : tables) {
+                if (generator != null && count >= size) {
+                    break;
+                }
 
-        try (Connection connection = dataSource.getConnection();
-            PreparedStatement preparedStatement = connection.prepareStatement(sql.toString())) {
-            int parameterIndex = 1;
+                // 검색 조건/정렬 조건 모양별로 만들어 둔 SQL 사용
+                String sql = EmotionQueries.findAll(table, filters, orders);
+                logger.debug("sql::{}", sql);
+
+                try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                    int parameterIndex = bindFilters(preparedStatement, connection, matchedIds, content, subject, useYn);
+                    if (tables.size() == 1) {
+                        preparedStatement.setLong(parameterIndex, size);
+                        preparedStatement.setLong(parameterIndex + 1, skip);
+                        skip = 0;
+                    } else {
+                        preparedStatement.setLong(parameterIndex, skip + size - count);
+                        preparedStatement.setLong(parameterIndex + 1, 0);
+                    }
+
+                    // resultSet : 쿼리실행한 결과물을 담는다.
+                    try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                        if (generator == null) {
+                            startJsonResponse(response);
+                            generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+                            generator.writeStartArray();
+                        }
+                        while (resultSet.next()) {
+                            if (skip > 0) {
+                                skip -= 1;
+                                continue;
+                            }
+                            Emotion.writeJson(generator, resultSet);
+                            count += 1;
+                        }
+                    }
+                }
+            }
+            generator.writeEndArray();
+            recordRows("offset", count);
+            return null;
+        } catch (Exception e) {
+            logger.error("목록 정보 조회 실패::{}", e.getMessage());
+            return streamingFailure(response, "목록 조회에 실패했습니다.");
+        } finally {
+            closeGenerator(generator);
+        }
+    }
+
+    // 스트리밍 응답을 마친다. (응답을 시작하지 않았으면 아무것도 하지 않는다)
+    private void closeGenerator(JsonGenerator generator) {
+        if (generator == null) {
+            return;
+        }
+        try {
+            generator.close();
+        } catch (IOException e) {
+            logger.debug("응답 종료 실패::{}", e.getMessage());
+        }
+    }
+
+    // 검색 조건 값 바인딩 (EmotionQueries.filters 모양과 같은 순서, 다음 파라미터 순번 반환)
+    private int bindFilters(PreparedStatement preparedStatement, Connection connection, List<Long> matchedIds, String content, String subject, String useYn) throws SQLException {
+        int parameterIndex = 1;
+        if (matchedIds != null) {
+            preparedStatement.setArray(parameterIndex++, connection.createArrayOf("BIGINT", matchedIds.toArray()));
+        } else {
             if (content != null && !content.trim().isEmpty()) {
-                preparedStatement.setString(parameterIndex, content);
-                parameterIndex += 1;
+                preparedStatement.setString(parameterIndex++, EmotionQueries.escapeLike(content));
             }
             if (subject != null && !subject.trim().isEmpty()) {
-                preparedStatement.setString(parameterIndex, subject);
-                parameterIndex += 1;
+                preparedStatement.setString(parameterIndex++, EmotionQueries.escapeLike(subject));
             }
-            if (useYn != null && !useYn.trim().isEmpty()) {
-                preparedStatement.setString(parameterIndex, useYn);
-                parameterIndex += 1;
+        }
+        if (useYn != null && !useYn.trim().isEmpty()) {
+            preparedStatement.setString(parameterIndex++, useYn);
+        }
+        return parameterIndex;
+    }
+
+    // 스트리밍 응답 시작 (응답을 직접 쓰고 핸들러는 null을 반환한다)
+    private void startJsonResponse(HttpServletResponse response) {
+        response.setStatus(200);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    // 스트리밍 중 오류 응답
+    // 이미 응답을 보내기 시작했으면 상태 코드를 바꿀 수 없으므로 연결만 끝낸다.
+    private ResponseEntity<?> streamingFailure(HttpServletResponse response, String message) {
+        if (response.isCommitted()) {
+            return null;
+        }
+        response.resetBuffer();
+        return ResponseEntity.internalServerError().body(message);
+    }
+
+    // 커서(Keyset) 페이징 목록 조회
+    // OFFSET 만큼 앞의 행을 읽고 버리는 대신, 마지막 행의 (정렬 컬럼, ID) 다음부터 인덱스로 바로 찾아간다.
+    private ResponseEntity<?> findAllByCursor(String content, String subject, String useYn, int size, String sort, String cursor, HttpServletResponse response) {
+        // 정렬 조건 (허용한 컬럼/방향만 받는다, 기본값 : ID,DESC)
+        EmotionQueries.Order order = new EmotionQueries.Order(EmotionQueries.SortColumn.ID, true);
+        try {
+            List<EmotionQueries.Order> orders = EmotionQueries.parseSort(sort);
+            if (!orders.isEmpty()) {
+                order = orders.get(0);
             }
-            preparedStatement.setLong(parameterIndex, size);
-            parameterIndex += 1;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        String column = order.column().name();
+        String direction = order.direction();
+        if (size < 1) {
+            return ResponseEntity.badRequest().body("페이지 크기(size)는 1 이상이어야 합니다.");
+        }
 
-            preparedStatement.setLong(parameterIndex, (size * (page - 1)));
+        // 이전 페이지의 마지막 위치 (첫 페이지는 빈 값)
+        EmotionCursor after = null;
+        if (!cursor.isEmpty()) {
+            try {
+                after = EmotionCursor.decode(cursor);
+                // NULL이 들어갈 수 없는 컬럼은 정렬 값이 있어야 하고, 일시 컬럼은 값 형식도 확인
+                if (order.column() != EmotionQueries.SortColumn.ID && !order.column().nullable && after.lastValue() == null) {
+                    throw new IllegalArgumentException("커서 형식이 올바르지 않습니다.");
+                }
+                if (order.column().isTimestamp() && after.lastValue() != null) {
+                    Timestamp.valueOf(after.lastValue());
+                }
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body("커서(cursor)가 올바르지 않습니다.");
+            }
+            if (!after.column().equals(column) || !after.direction().equals(direction)) {
+                return ResponseEntity.badRequest().body("커서(cursor)와 정렬 조건(sort)이 일치하지 않습니다.");
+            }
+        }
+
+        // 검색 인덱스에서 검색 조건에 맞는 아이디를 먼저 찾는다. (많으면 아이디를 모두 넘기지 않고 LIKE 로 거른다)
+        List<Long> matchedIds = boundIds(searchMatchedIds(content, subject, useYn));
+
+        EmotionQueries.Seek seek = after == null ? EmotionQueries.Seek.NONE
+            : after.lastValue() == null ? EmotionQueries.Seek.NULL_VALUE : EmotionQueries.Seek.VALUE;
+        int filters = EmotionQueries.filters(matchedIds, content, subject, useYn);
+        // 아이디 순 정렬이면 버킷 저장소의 버킷을 아이디 순서대로 필요한 만큼만 읽는다.
+        List<String> tables = order.column() == EmotionQueries.SortColumn.ID ? buckets.tablesInIdOrder(order.descending()) : List.of(EmotionBuckets.TABLE);
+
+        // { "data": [...], "nextCursor": "..." } 형태로 한 행씩 바로 응답에 쓴다. (첫 조회가 성공한 뒤에 응답을 시작한다)
+        JsonGenerator generator = null;
+        try (Connection connection = dataSource.getConnection()) {
+            int count = 0;
+            long lastId = 0;
+            String lastValue = null;
+            boolean hasNext = false;
+            for (String table : tables) {
+                if (hasNext) {
+                    break;
+                }
+
+                String sql = EmotionQueries.findAllByCursor(table, filters, order, seek);
+                logger.debug("sql::{}", sql);
+
+                try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                    int parameterIndex = bindFilters(preparedStatement, connection, matchedIds, content, subject, useYn);
+                    if (after != null) {
+                        parameterIndex = bindSeekCondition(preparedStatement, parameterIndex, order.column(), after);
+                    }
+                    // 다음 페이지가 있는지 알기 위해 한 건 더 조회
+                    preparedStatement.setLong(parameterIndex, size + 1L - count);
+
+                    try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                        if (generator == null) {
+                            startJsonResponse(response);
+                            generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+                            generator.writeStartObject();
+                            generator.writeArrayFieldStart("data");
+                        }
+                        while (resultSet.next()) {
+                            // 한 건 더 조회됐으면 다음 페이지가 있다.
+                            if (count == size) {
+                                hasNext = true;
+                                break;
+                            }
+                            Emotion.writeJson(generator, resultSet);
+                            lastId = resultSet.getLong(1);
+                            lastValue = sortValue(resultSet, column);
+                            count += 1;
+                        }
+                    }
+                }
+            }
+            generator.writeEndArray();
+            recordRows("cursor", count);
+
+            generator.writeStringField("nextCursor", hasNext ? new EmotionCursor(column, direction, lastId, lastValue).encode() : null);
+            generator.writeEndObject();
+            return null;
+        } catch (Exception e) {
+            logger.error("목록 정보 조회 실패::{}", e.getMessage());
+            return streamingFailure(response, "목록 조회에 실패했습니다.");
+        } finally {
+            closeGenerator(generator);
+        }
+    }
+
+    // 목록 조회 한 번에 내려준 행 수 (mode : offset, cursor, rank)
+    private void recordRows(String mode, int count) {
+        DistributionSummary.builder("emotion.findall.rows")
+            .description("목록 조회 한 번에 내려준 행 수")
+            .tag("mode", mode)
+            .register(meterRegistry)
+            .record(count);
+    }
+
+    // 커서에 담을 현재 행의 정렬 컬럼 값
+    private String sortValue(ResultSet resultSet, String column) throws SQLException {
+        if (column.equals("REG_DTM") || column.equals("MODI_DTM")) {
+            Timestamp value = resultSet.getTimestamp(column);
+            return value == null ? null : value.toString();
+        }
+        return resultSet.getString(column);
+    }
+
+    // 검색 인덱스로 찾은 아이디 목록 (검색 조건이 없거나 검색 인덱스를 사용하지 않으면 null)
+    private List<Long> searchMatchedIds(String content, String subject, String useYn) {
+        boolean hasSearch = (content != null && !content.trim().isEmpty()) || (subject != null && !subject.trim().isEmpty());
+        if (!hasSearch || !searchIndex.isEnabled()) {
+            return null;
+        }
+        return searchIndex.search(content, subject, useYn);
+    }
+
+    // DB에서 정렬할 때 ID = ANY(?)로 넘길 검색 결과 (searchMaxBoundIds 를 넘으면 null 로 LIKE 검색)
+    private List<Long> boundIds(List<Long> matchedIds) {
+        return matchedIds != null && matchedIds.size() > searchMaxBoundIds ? null : matchedIds;
+    }
+
+    // 정렬해 둔 아이디 순서대로 목록 조회 (검색 점수 순, 아이디 순)
+    // 해당 페이지의 아이디만 DB에서 조회한다.
+    private ResponseEntity<?> findAllByIds(List<Long> sortedIds, int page, int size, String mode) {
+        int fromIndex = (int) Math.min((long) size * (page - 1), sortedIds.size());
+        int toIndex = (int) Math.min((long) fromIndex + size, sortedIds.size());
+        List<Long> pageIds = sortedIds.subList(fromIndex, toIndex);
+        if (pageIds.isEmpty()) {
+            recordRows(mode, 0);
+            return ResponseEntity.ok(new ArrayList<>());
+        }
+
+        String sql = "SELECT " + Emotion.COLUMNS + " FROM EMOTIONS WHERE ID = ANY(?)";
+        try (Connection connection = dataSource.getConnection();
+            PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            Array ids = connection.createArrayOf("BIGINT", pageIds.toArray());
+            preparedStatement.setArray(1, ids);
 
-            // resultSet : 쿼리실행한 결과물을 담는다.
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                List<Map<String, Object>> reulsts = new ArrayList<>();
-                
-                // 다음 결과물이 있으면
+                Map<Long, Emotion> rows = new HashMap<>();
                 while (resultSet.next()) {
-                    // Map타입의 변수 선언<key의타입(컬럼명), value의 타입(컬럼의 타입)>
-                    Map<String, Object> result = new HashMap<>();
-                    result.put("ID", resultSet.getLong("ID"));
-                    result.put("CONTENT", resultSet.getString("CONTENT"));
-                    result.put("SUBJECT", resultSet.getString("SUBJECT"));
-                    result.put("USE_YN", resultSet.getString("USE_YN"));
-                    result.put("REG_DTM", resultSet.getTimestamp("REG_DTM"));
-                    result.put("MODI_DTM", resultSet.getTimestamp("MODI_DTM"));
-                    
-                    reulsts.add(result);
+                    Emotion emotion = Emotion.from(resultSet);
+                    rows.put(emotion.id(), emotion);
                 }
 
-                // 클라이언트한테 보낼 값을 ok안에 담는다.
+                // 정렬해 둔 아이디 순서대로 담는다.
+                List<Emotion> reulsts = new ArrayList<>();
+                for (Long id : pageIds) {
+                    Emotion result = rows.get(id);
+                    if (result != null) {
+                        reulsts.add(result);
+                    }
+                }
+                recordRows(mode, reulsts.size());
                 return ResponseEntity.ok(reulsts);
             }
         } catch (Exception e) {
@@ -230,11 +816,287 @@ public class EmotionTrashContorller {
         }
     }
 
+    // 커서 조건(EmotionQueries.findAllByCursor)에 값 바인딩 (다음 파라미터 순번 반환)
+    private int bindSeekCondition(PreparedStatement preparedStatement, int parameterIndex, EmotionQueries.SortColumn column, EmotionCursor after) throws SQLException {
+        if (column == EmotionQueries.SortColumn.ID || after.lastValue() == null) {
+            preparedStatement.setLong(parameterIndex++, after.lastId());
+            return parameterIndex;
+        }
+
+        for (int i = 0; i < 2; i++) {
+            if (column.isTimestamp()) {
+                preparedStatement.setTimestamp(parameterIndex++, Timestamp.valueOf(after.lastValue()));
+            } else {
+                preparedStatement.setString(parameterIndex++, after.lastValue());
+            }
+        }
+        preparedStatement.setLong(parameterIndex++, after.lastId());
+        return parameterIndex;
+    }
+
+
+    @ApiResponse(responseCode = "200", description = "감정 내보내기 성공 (NDJSON 또는 CSV 스트리밍)")
+    @ApiResponse(responseCode = "400", description = "지원하지 않는 형식")
+    @ApiResponse(responseCode = "500", description = "내부 서버 오류")
+    @Operation(summary = "감정 쓰레기통 내보내기", description = "검색 조건에 맞는 감정 전체를 NDJSON 또는 CSV로 내려받기")
+    @EmotionBulkhead(EmotionBulkheads.Kind.SEARCH)
+    @GetMapping("/emotions/export")
+    public ResponseEntity<?> export(
+        @RequestParam(name = "content", required = false) String content,
+        @RequestParam(name = "subject", required = false) String subject,
+        @RequestParam(name = "useYn", required = false) String useYn,
+        @Parameter(description = "내보내기 형식 (ndjson, csv)", example = "ndjson") @RequestParam(name = "format", defaultValue = "ndjson") String format,
+        @Parameter(description = "gzip 압축 여부") @RequestParam(name = "gzip", defaultValue = "false") boolean gzip,
+        @Parameter(hidden = true) HttpServletResponse response
+    ) {
+        logger.info("감정 정보 내보내기::content={}, subject={}, useYn={}, format={}, gzip={}", textLength(content), subject, useYn, format, gzip);
+
+        boolean csv = format.equalsIgnoreCase("csv");
+        if (!csv && !format.equalsIgnoreCase("ndjson")) {
+            return ResponseEntity.badRequest().body("내보내기 형식(format)은 ndjson 또는 csv만 가능합니다.");
+        }
+
+        // 검색 인덱스를 쓰지 않고 LIKE 조건으로 읽는다.
+        // 검색 인덱스로 찾은 아이디 목록은 전체 건수만큼 메모리에 만들고 한 번에 바인딩해야 하므로, 건수 제한이 없는 내보내기에는 쓰지 않는다.
+        // 기본키 순서로 읽으면 정렬을 위해 결과를 모아둘 필요가 없다.
+        // 버킷 저장소는 EMOTIONS 뷰 전체를 ORDER BY ID 로 읽으면 모든 버킷을 모아서 정렬하므로, 버킷 테이블을 아이디 순서대로 하나씩 읽어서 이어 붙인다.
+        List<String> tables = buckets.tablesInIdOrder(false);
+        int filters = EmotionQueries.filters(null, content, subject, useYn);
+
+        try (Connection connection = dataSource.getConnection()) {
+            // 내보내는 동안 들어오는 등록/수정이 섞이지 않도록 읽기 전용 트랜잭션 하나로 읽는다. (MVCC 스냅샷)
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            // H2는 기본적으로 조회 결과를 모두 만든 뒤 돌려주므로, 읽는 만큼만 가져오도록 지연 실행을 켠다.
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LAZY_QUERY_EXECUTION TRUE");
+            }
+
+            try (ExportRows rows = new ExportRows(connection, tables, filters, content, subject, useYn)) {
+                // 첫 테이블 조회가 성공한 뒤에 응답을 시작한다.
+                rows.openNext();
+                // 길이를 모르는 응답이므로 chunked 로 전송된다.
+                response.setStatus(200);
+                // gzip 이면 압축 파일(.gz) 자체를 내려준다. (Content-Encoding 을 붙이면 클라이언트가 풀어서 저장하므로 .gz 이름과 맞지 않는다)
+                response.setContentType(gzip ? "application/gzip" : csv ? "text/csv" : "application/x-ndjson");
+                response.setHeader("Content-Disposition", "attachment; filename=\"emotions." + (csv ? "csv" : "ndjson") + (gzip ? ".gz" : "") + "\"");
+
+                long exportCount;
+                try (OutputStream outputStream = gzip ? new GZIPOutputStream(response.getOutputStream(), 8192) : response.getOutputStream()) {
+                    exportCount = csv ? writeCsv(outputStream, rows) : writeNdjson(outputStream, rows);
+                }
+                logger.info("감정 정보 내보내기 완료::{}", exportCount);
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET LAZY_QUERY_EXECUTION FALSE");
+                }
+                connection.rollback();
+            }
+            return null;
+        } catch (Exception e) {
+            logger.error("감정 정보 내보내기 실패::{}", e.getMessage());
+            return streamingFailure(response, "내보내기에 실패했습니다.");
+        }
+    }
+
+    // 내보낼 행 (테이블 목록을 차례로 조회해서 한 줄로 이어 읽는다, 테이블마다 기본키 순서)
+    private class ExportRows implements AutoCloseable {
+        private final Connection connection;
+        private final Iterator<String> tables;
+        private final int filters;
+        private final String content;
+        private final String subject;
+        private final String useYn;
+
+        private PreparedStatement preparedStatement;
+        private ResultSet resultSet;
+
+        ExportRows(Connection connection, List<String> tables, int filters, String content, String subject, String useYn) {
+            this.connection = connection;
+            this.tables = tables.iterator();
+            this.filters = filters;
+            this.content = content;
+            this.subject = subject;
+            this.useYn = useYn;
+        }
+
+        // 다음 테이블 조회 (남은 테이블이 없으면 false)
+        boolean openNext() throws SQLException {
+            close();
+            if (!tables.hasNext()) {
+                return false;
+            }
+            String sql = EmotionQueries.export(tables.next(), filters);
+            logger.debug("sql::{}", sql);
+
+            preparedStatement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            preparedStatement.setFetchSize(exportFetchSize);
+            bindFilters(preparedStatement, connection, null, content, subject, useYn);
+            resultSet = preparedStatement.executeQuery();
+            return true;
+        }
+
+        // 다음 행으로 이동 (지금 테이블을 다 읽었으면 다음 테이블)
+        boolean next() throws SQLException {
+            while (resultSet == null || !resultSet.next()) {
+                if (!openNext()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        ResultSet resultSet() {
+            return resultSet;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                if (resultSet != null) {
+                    resultSet.close();
+                }
+            } finally {
+                resultSet = null;
+                if (preparedStatement != null) {
+                    preparedStatement.close();
+                    preparedStatement = null;
+                }
+            }
+        }
+    }
+
+    // 한 줄에 한 행씩 JSON으로 쓴다.
+    private long writeNdjson(OutputStream outputStream, ExportRows rows) throws SQLException, IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            while (rows.next()) {
+                Emotion.writeJson(generator, rows.resultSet());
+                count += 1;
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        return count;
+    }
+
+    // 첫 줄은 컬럼명, 이후 한 줄에 한 행씩 CSV로 쓴다.
+    private long writeCsv(OutputStream outputStream, ExportRows rows) throws SQLException, IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(Emotion.COLUMNS.replace(" ", ""));
+        writer.write('\n');
+        while (rows.next()) {
+            ResultSet resultSet = rows.resultSet();
+            writer.write(String.valueOf(resultSet.getLong(1)));
+            writer.write(',');
+            writer.write(csvValue(resultSet.getString(2)));
+            writer.write(',');
+            writer.write(csvValue(resultSet.getString(3)));
+            writer.write(',');
+            writer.write(csvValue(resultSet.getString(4)));
+            writer.write(',');
+            writer.write(csvValue(resultSet.getTimestamp(5)));
+            writer.write(',');
+            writer.write(csvValue(resultSet.getTimestamp(6)));
+            writer.write('\n');
+            count += 1;
+        }
+        writer.flush();
+        return count;
+    }
+
+    // CSV 값 (쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싸고 따옴표는 두 번 쓴다)
+    private String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    @ApiResponse(responseCode = "200", description = "감정 통계 조회 성공")
+    @ApiResponse(responseCode = "400", description = "밸리데이션 실패")
+    @ApiResponse(responseCode = "503", description = "통계 기능을 사용하지 않음")
+    @Operation(summary = "감정 주제별 통계", description = "주제별 사용 중/사용 안 함 건수와 등록 시각 구간(분/시/일)별 건수 조회 (DB를 읽지 않고 메모리 카운터에서 조회)")
+    @GetMapping("/emotions/stats")
+    public ResponseEntity<?> stats(
+        @Parameter(description = "주제 (없으면 전체 주제)", example = "기쁨") @RequestParam(name = "subject", required = false) String subject,
+        @Parameter(description = "구간 단위 (minute, hour, day)", example = "hour") @RequestParam(name = "granularity", defaultValue = "hour") String granularity,
+        @Parameter(description = "구간 시작 (예: 2026-01-01T00:00, 없으면 최근 60분/24시간/30일)") @RequestParam(name = "from", required = false) String from,
+        @Parameter(description = "구간 끝 (예: 2026-01-01T23:00, 없으면 현재)") @RequestParam(name = "to", required = false) String to
+    ) {
+        logger.info("감정 통계 조회::subject={}, granularity={}, from={}, to={}", subject, granularity, from, to);
+
+        if (!emotionStats.isEnabled()) {
+            return ResponseEntity.status(503).body("통계 기능을 사용하지 않습니다.");
+        }
+
+        // 밸리데이션 체크
+        EmotionStats.Granularity bucketUnit;
+        try {
+            bucketUnit = EmotionStats.Granularity.valueOf(granularity.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("구간 단위(granularity)는 minute, hour, day만 가능합니다.");
+        }
+
+        LocalDateTime toDateTime;
+        LocalDateTime fromDateTime;
+        try {
+            toDateTime = to == null || to.trim().isEmpty() ? LocalDateTime.now() : LocalDateTime.parse(to.trim());
+            fromDateTime = from == null || from.trim().isEmpty() ? bucketUnit.defaultFrom(bucketUnit.truncate(toDateTime)) : LocalDateTime.parse(from.trim());
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("구간(from, to)은 2026-01-01T00:00 형식으로 입력해야 합니다.");
+        }
+        if (fromDateTime.isAfter(toDateTime)) {
+            return ResponseEntity.badRequest().body("구간 시작(from)은 구간 끝(to)보다 늦을 수 없습니다.");
+        }
+        // 오래된 구간은 메모리에서 지우므로 남아 있는 구간까지만 조회할 수 있다.
+        LocalDateTime retainedFrom = emotionStats.retainedFrom(bucketUnit);
+        if (bucketUnit.truncate(fromDateTime).isBefore(retainedFrom)) {
+            return ResponseEntity.badRequest().body("구간 시작(from)은 " + retainedFrom + " 이후만 가능합니다.");
+        }
+
+        String subjectFilter = subject == null || subject.trim().isEmpty() ? null : subject;
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("granularity", bucketUnit.name().toLowerCase());
+        body.put("from", bucketUnit.truncate(fromDateTime));
+        body.put("to", bucketUnit.truncate(toDateTime));
+        body.put("subjects", emotionStats.subjectCounts(subjectFilter));
+        body.put("buckets", emotionStats.bucketCounts(bucketUnit, fromDateTime, toDateTime, subjectFilter));
+        return ResponseEntity.ok(body);
+    }
+
+    @ApiResponse(responseCode = "200", description = "실시간 피드 구독 성공 (text/event-stream)")
+    @ApiResponse(responseCode = "503", description = "구독자 수 초과")
+    @Operation(summary = "감정 실시간 피드", description = "등록/수정/삭제/만료되는 감정을 Server-Sent Events로 받기 (재접속 시 Last-Event-ID 다음 이벤트부터 다시 받음)")
+    @GetMapping(value = "/emotions/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(
+        @Parameter(description = "주제 (없으면 전체 주제)", example = "기쁨") @RequestParam(name = "subject", required = false) String subject,
+        @Parameter(description = "마지막으로 받은 이벤트 아이디 (Last-Event-ID 헤더 대신 사용 가능)") @RequestParam(name = "lastEventId", required = false) String lastEventId,
+        @Parameter(hidden = true) @RequestHeader(name = "Last-Event-ID", required = false) String lastEventIdHeader
+    ) {
+        String resumeId = lastEventIdHeader != null ? lastEventIdHeader : lastEventId;
+        logger.info("감정 실시간 피드 구독::subject={}, lastEventId={}", subject, resumeId);
+
+        SseEmitter emitter = feedHub.subscribe(subject == null || subject.trim().isEmpty() ? null : subject, resumeId);
+        if (emitter == null) {
+            return ResponseEntity.status(503).header("Retry-After", "5").build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
 
     @ApiResponse(responseCode = "200", description = "감정 버리기 수정 성공")
     @ApiResponse(responseCode = "400", description = "밸리데이션 실패")
     @ApiResponse(responseCode = "500", description = "내부 서버 오류")
     @Operation(summary = "감정 쓰레기통 수정", description = "감정 쓰레기통 수정")
+    @EmotionBulkhead(EmotionBulkheads.Kind.WRITE)
     @PutMapping("/emotions/{id}")
     public ResponseEntity<?> updateById(
         @io.swagger.v3.oas.annotations.parameters.RequestBody(
@@ -244,7 +1106,7 @@ public class EmotionTrashContorller {
         )
         @RequestBody Map<String, String> params, @Parameter(description = "아이디 조건을 적으세요", example = "1") @PathVariable("id") long id
     ) {
-        logger.info("감정 정보 수정 정보 수신::{}", params);
+        logger.info("감정 정보 수정 정보 수신::id={}, {}", id, summarize(params));
 
         // 파라미터 추출
         String content = params.get("content"); // 내용
@@ -272,7 +1134,7 @@ public class EmotionTrashContorller {
             return ResponseEntity.badRequest().body("주제(subject)의 길이는 100을 초과할 수 없습니다.");
         }
 
-        String sql = "UPDATE EMOTIONS SET CONTENT = ?, SUBJECT = ?, USE_YN = ? WHERE ID = ? ";
+        String sql = "UPDATE " + buckets.tableOf(id) + " SET CONTENT = ?, SUBJECT = ?, USE_YN = ? WHERE ID = ? ";
         try (Connection connection = dataSource.getConnection();
             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, content);
@@ -285,6 +1147,7 @@ public class EmotionTrashContorller {
                 return ResponseEntity.internalServerError().body("수정에 실패했습니다.");
             }
             logger.debug("updateCount::{}", updateCount);
+            eventPublisher.publishEvent(new EmotionChangedEvent(EmotionChangedEvent.Type.UPDATED, id, content, subject, useYn));
 
             logger.info("감정 정보 수정 완료::{}", updateCount);
             return ResponseEntity.ok("수정에 성공했습니다.");
@@ -299,6 +1162,7 @@ public class EmotionTrashContorller {
     @ApiResponse(responseCode = "400", description = "밸리데이션 실패")
     @ApiResponse(responseCode = "500", description = "내부 서버 오류")
     @Operation(summary = "감정 쓰레기통 부분 수정", description = "감정 쓰레기통 부분 수정")
+    @EmotionBulkhead(EmotionBulkheads.Kind.WRITE)
     @PatchMapping("/emotions/{id}")
     public ResponseEntity<?> patchById(
         @io.swagger.v3.oas.annotations.parameters.RequestBody(
@@ -308,7 +1172,7 @@ public class EmotionTrashContorller {
         )
         @RequestBody Map<String, String> params, @Parameter(description = "아이디 조건을 적으세요", example = "1") @PathVariable("id") long id
     ) {
-        logger.info("감정 정보 부분 수정 정보 수신::{}", params);
+        logger.info("감정 정보 부분 수정 정보 수신::id={}, {}", id, summarize(params));
 
         // 파라미터 추출
         String content = params.get("content"); // 내용
@@ -343,21 +1207,11 @@ public class EmotionTrashContorller {
             return ResponseEntity.badRequest().body("주제(subject)의 길이는 100을 초과할 수 없습니다.");
         }
 
-        // 동적 쿼리 생성
-        StringBuilder sql = new StringBuilder("UPDATE EMOTIONS SET MODI_DTM = CURRENT_TIMESTAMP");
-        if (content != null) {
-            sql.append(", CONTENT = ?");
-        }
-        if (useYn != null) {
-            sql.append(", USE_YN = ?");
-        }
-        if (subject != null) {
-            sql.append(", SUBJECT = ?");
-        }
-        sql.append(" WHERE ID = ?");
+        // 동적 쿼리 (값이 있는 컬럼 조합별로 만들어 둔 SQL 사용)
+        String sql = EmotionQueries.patch(buckets.tableOf(id), content != null, useYn != null, subject != null);
 
         try (Connection connection = dataSource.getConnection();
-            PreparedStatement preparedStatement = connection.prepareStatement(sql.toString())) {
+            PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             int parameterIndex = 1;
             if (content != null) {
                 preparedStatement.setString(parameterIndex++, content);
@@ -375,6 +1229,9 @@ public class EmotionTrashContorller {
                 return ResponseEntity.internalServerError().body("부분 수정에 실패했습니다.");
             }
             logger.debug("updateCount::{}", patchCount);
+            // 주제를 바꾸지 않았어도 실시간 피드의 주제 필터를 위해 현재 주제를 담는다.
+            String currentSubject = subject != null ? subject : subjectOf(connection, buckets.tableOf(id), id);
+            eventPublisher.publishEvent(new EmotionChangedEvent(EmotionChangedEvent.Type.PATCHED, id, content, currentSubject, useYn));
 
             logger.info("감정 정보 부분 수정 완료::{}", patchCount);
             return ResponseEntity.ok("부분 수정에 성공했습니다.");
@@ -388,10 +1245,11 @@ public class EmotionTrashContorller {
     @ApiResponse(responseCode = "400", description = "밸리데이션 실패")
     @ApiResponse(responseCode = "500", description = "내부 서버 오류")
     @Operation(summary = "감정 쓰레기통 삭제", description = "감정 쓰레기통 삭제")
+    @EmotionBulkhead(EmotionBulkheads.Kind.WRITE)
     @DeleteMapping("/emotions/{id}")
     public ResponseEntity<?> delete( @Parameter(description = "아이디 조건을 적으세요", example = "1") @PathVariable("id") long id
     ) {
-        String sql = "UPDATE EMOTIONS SET USE_YN = 'N' WHERE ID = ? ";
+        String sql = "UPDATE " + buckets.tableOf(id) + " SET USE_YN = 'N' WHERE ID = ? ";
         try (Connection connection = dataSource.getConnection();
             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setLong(1, id);
@@ -401,6 +1259,7 @@ public class EmotionTrashContorller {
                 return ResponseEntity.internalServerError().body("삭제에 실패했습니다.");
             }
             logger.debug("deleteCount::{}", deleteCount);
+            eventPublisher.publishEvent(new EmotionChangedEvent(EmotionChangedEvent.Type.DELETED, id, null, subjectOf(connection, buckets.tableOf(id), id), "N"));
 
             logger.info("감정 정보 삭제 완료::{}", deleteCount);
             return ResponseEntity.ok("삭제에 성공했습니다.");
@@ -410,5 +1269,16 @@ public class EmotionTrashContorller {
         }
     }
 
+    // 감정의 현재 주제 (삭제/부분 수정 이벤트에 담아서 실시간 피드가 주제로 거를 수 있게 한다)
+    private String subjectOf(Connection connection, String table, long id) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement("SELECT SUBJECT FROM " + table + " WHERE ID = ?")) {
+            preparedStatement.setLong(1, id);
+
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+
 
 }
@@ -1,18 +1,207 @@
 package com.ggomi.emotion_trash;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Component
+@ConditionalOnProperty(name = "emotion.expiry.enabled", havingValue = "true", matchIfMissing = true)
 public class EmotionTrashScheduler {
     // 로거 객체 생성
     private Logger logger = LoggerFactory.getLogger(EmotionTrashScheduler.class);
 
-    // 초 분 시 일 월 요일
-    @Scheduled(cron = "0 * * * * *")
-    public void test() {
-        logger.info("스케줄 실행");
+    // 만료 대상 조회 (REG_DTM 인덱스를 타도록 REG_DTM 순으로 정해진 건수만 조회)
+    private static final String SELECT_SOFT_SQL = "SELECT ID, SUBJECT FROM EMOTIONS WHERE USE_YN = 'Y' AND REG_DTM < DATEADD('SECOND', ?, LOCALTIMESTAMP) ORDER BY REG_DTM LIMIT ?";
+    private static final String SELECT_HARD_SQL = "SELECT ID, SUBJECT FROM EMOTIONS WHERE REG_DTM < DATEADD('SECOND', ?, LOCALTIMESTAMP) ORDER BY REG_DTM LIMIT ?";
+
+    // 만료 처리 (논리 삭제 / 물리 삭제)
+    private static final String SOFT_DELETE_SQL = "UPDATE EMOTIONS SET USE_YN = 'N' WHERE ID = ? AND USE_YN = 'Y'";
+    private static final String HARD_DELETE_SQL = "DELETE FROM EMOTIONS WHERE ID = ?";
+
+    // 지연 시간 계산 (만료 시각이 지났는데 아직 남아있는 가장 오래된 데이터 기준)
+    private static final String SOFT_LAG_SQL = "SELECT DATEDIFF('MILLISECOND', MIN(REG_DTM), DATEADD('SECOND', ?, LOCALTIMESTAMP)) FROM EMOTIONS WHERE USE_YN = 'Y'";
+    private static final String HARD_LAG_SQL = "SELECT DATEDIFF('MILLISECOND', MIN(REG_DTM), DATEADD('SECOND', ?, LOCALTIMESTAMP)) FROM EMOTIONS";
+
+    // DB 접근을 위한 객체
+    private final DataSource dataSource;
+
+    // 만료 이벤트 발행
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 버킷 저장소 (emotion.storage.mode=bucketed 면 행 단위 정리 대신 버킷을 통째로 비운다)
+    private final EmotionBuckets buckets;
+
+    private final long ttlSeconds; // 만료 시간(초)
+    private final int batchSize; // 한 번에 정리할 건수
+    private final int maxBatchesPerRun; // 한 번 실행할 때 최대 반복 횟수
+    private final boolean hardDelete; // 물리 삭제 여부
+
+    // 메트릭
+    private final Counter purgedCounter;
+    private final Timer runTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final AtomicLong throughput = new AtomicLong();
+
+    public EmotionTrashScheduler(
+        DataSource dataSource,
+        ApplicationEventPublisher eventPublisher,
+        EmotionBuckets buckets,
+        MeterRegistry meterRegistry,
+        @Value("${emotion.expiry.ttl-seconds:300}") long ttlSeconds,
+        @Value("${emotion.expiry.batch-size:500}") int batchSize,
+        @Value("${emotion.expiry.max-batches-per-run:200}") int maxBatchesPerRun,
+        @Value("${emotion.expiry.mode:hard}") String mode
+    ) {
+        this.dataSource = dataSource;
+        this.eventPublisher = eventPublisher;
+        this.buckets = buckets;
+        this.ttlSeconds = ttlSeconds;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.hardDelete = "hard".equalsIgnoreCase(mode);
+
+        this.purgedCounter = Counter.builder("emotion.expiry.purged")
+            .description("만료 처리된 감정 건수")
+            .register(meterRegistry);
+        this.runTimer = Timer.builder("emotion.expiry.run")
+            .description("만료 데이터 정리 실행 시간")
+            .register(meterRegistry);
+        Gauge.builder("emotion.expiry.lag", lagMillis, AtomicLong::get)
+            .description("만료 시각이 지났지만 아직 정리되지 않은 가장 오래된 데이터의 지연 시간")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+        Gauge.builder("emotion.expiry.throughput", throughput, AtomicLong::get)
+            .description("마지막 실행의 초당 정리 건수")
+            .baseUnit("rows/s")
+            .register(meterRegistry);
+    }
+
+    // 이전 실행이 끝난 뒤 일정 시간 후 다시 실행 (실행이 겹치거나 밀린 실행이 몰리지 않도록 fixedDelay 사용)
+    // 한 번 실행할 때 밀린 데이터가 없어질 때까지 batchSize 단위로 반복해서 따라잡는다.
+    @Scheduled(fixedDelayString = "${emotion.expiry.fixed-delay:10000}", initialDelayString = "${emotion.expiry.fixed-delay:10000}")
+    public void expire() {
+        long startNanos = System.nanoTime();
+        long purgedCount = 0;
+        int batchCount = 0;
+
+        try {
+            if (buckets.isEnabled()) {
+                // 버킷 저장소 : 만료된 버킷을 통째로 비우고, 시간 구간이 지났으면 새 버킷을 연다.
+                purgedCount = buckets.rotate();
+                purgedCounter.increment(purgedCount);
+            } else {
+                while (batchCount < maxBatchesPerRun) {
+                    int count = purgeBatch();
+                    purgedCount += count;
+                    batchCount += 1;
+
+                    // 마지막 묶음이 꽉 차지 않았으면 더 이상 밀린 데이터가 없다.
+                    if (count < batchSize) {
+                        break;
+                    }
+                }
+            }
+            lagMillis.set(measureLag());
+        } catch (Exception e) {
+            logger.error("만료 데이터 정리 실패::{}", e.getMessage());
+        } finally {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            runTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            throughput.set(elapsedNanos == 0 ? 0 : purgedCount * TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+        }
+
+        if (purgedCount > 0) {
+            logger.info("만료 데이터 정리 완료::purgedCount={}, batchCount={}, lagMillis={}", purgedCount, batchCount, lagMillis.get());
+        }
+        logger.debug("만료 데이터 정리 실행::purgedCount={}, elapsedMillis={}", purgedCount, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    // 만료 대상을 batchSize 만큼 조회해서 한 트랜잭션으로 정리한다.
+    private int purgeBatch() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                List<Long> ids = new ArrayList<>();
+                List<String> subjects = new ArrayList<>(); // 만료 이벤트에 담을 주제 (실시간 피드의 주제 필터용)
+                try (PreparedStatement preparedStatement = connection.prepareStatement(hardDelete ? SELECT_HARD_SQL : SELECT_SOFT_SQL)) {
+                    preparedStatement.setLong(1, -ttlSeconds);
+                    preparedStatement.setInt(2, batchSize);
+
+                    try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                        while (resultSet.next()) {
+                            ids.add(resultSet.getLong(1));
+                            subjects.add(resultSet.getString(2));
+                        }
+                    }
+                }
+
+                if (ids.isEmpty()) {
+                    connection.commit();
+                    return 0;
+                }
+
+                int[] counts;
+                try (PreparedStatement preparedStatement = connection.prepareStatement(hardDelete ? HARD_DELETE_SQL : SOFT_DELETE_SQL)) {
+                    for (Long id : ids) {
+                        preparedStatement.setLong(1, id);
+                        preparedStatement.addBatch();
+                    }
+                    counts = preparedStatement.executeBatch();
+                }
+                connection.commit();
+
+                // 실제로 정리된 건만 알린다. (그 사이 사용자가 삭제한 건은 제외)
+                int purgedCount = 0;
+                EmotionChangedEvent.Type type = hardDelete ? EmotionChangedEvent.Type.PURGED : EmotionChangedEvent.Type.EXPIRED;
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] != 0) {
+                        purgedCount += 1;
+                        eventPublisher.publishEvent(new EmotionChangedEvent(type, ids.get(i), null, subjects.get(i), "N"));
+                    }
+                }
+
+                purgedCounter.increment(purgedCount);
+                return purgedCount;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // 만료 시각이 지났는데 아직 정리되지 않은 가장 오래된 데이터의 지연 시간(ms)
+    private long measureLag() throws SQLException {
+        // 버킷 저장소는 물리 삭제와 같은 기준 (EMOTIONS 뷰)
+        try (Connection connection = dataSource.getConnection();
+            PreparedStatement preparedStatement = connection.prepareStatement(hardDelete || buckets.isEnabled() ? HARD_LAG_SQL : SOFT_LAG_SQL)) {
+            preparedStatement.setLong(1, -ttlSeconds);
+
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    return Math.max(resultSet.getLong(1), 0);
+                }
+            }
+            return 0;
+        }
     }
 }
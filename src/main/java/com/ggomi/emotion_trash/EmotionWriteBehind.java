@@ -0,0 +1,457 @@
+package com.ggomi.emotion_trash;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// 비동기 등록(write-behind) 큐
+// 요청 스레드는 아이디만 받아서 큐에 넣고 바로 응답하고, 전용 쓰기 스레드가 큐에 쌓인 건을 모아서 한 번에 커밋(group commit)한다.
+// emotion.ingest.mode=async 일 때만 사용한다.
+@Component
+public class EmotionWriteBehind {
+    // 로거 객체 생성
+    private Logger logger = LoggerFactory.getLogger(EmotionWriteBehind.class);
+
+    // 시퀀스에서 아이디를 여러 개 한 번에 받아온다.
+    private static final String ID_BLOCK_SQL = "SELECT NEXT VALUE FOR EMOTIONS_ID_SEQ FROM SYSTEM_RANGE(1, ?)";
+    // 묶음 저장 실패 시 한 건씩 나눠 저장하기 전까지 시도 횟수
+    private static final int MAX_RETRY = 3;
+    // 저장 실패 시 재시도 간격 (실패할 때마다 두 배, 최대 MAX_BACKOFF_MILLIS)
+    private static final long INITIAL_BACKOFF_MILLIS = 100;
+    private static final long MAX_BACKOFF_MILLIS = 5000;
+
+    // 큐에 담긴 등록 요청
+    private record PendingEmotion(long id, String content, String subject, Timestamp regDtm) {
+    }
+
+    // 미리 받아둔 아이디 묶음 (cursor 위치부터 차례로 나눠준다, generation : 받아오기 전의 버킷 세대)
+    private record IdBlock(long generation, long[] ids, AtomicInteger cursor) {
+        // 다음 아이디 (다 썼으면 -1)
+        long next() {
+            int index = cursor.getAndIncrement();
+            return index < ids.length ? ids[index] : -1;
+        }
+    }
+
+    // DB 접근을 위한 객체
+    private final DataSource dataSource;
+
+    // 등록 이벤트 발행
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 버킷 저장소 (아이디를 미리 받아두므로 아이디로 테이블을 찾는다)
+    private final EmotionBuckets buckets;
+
+    // 저장하지 못한 건을 파일에 남길 때 사용
+    private final ObjectMapper objectMapper;
+
+    private final boolean enabled; // 비동기 등록 사용 여부
+    private final int batchSize; // 한 번에 커밋할 최대 건수
+    private final long flushIntervalNanos; // 큐가 비었을 때 다음 확인까지 대기 시간
+    private final int idBlockSize; // 시퀀스에서 한 번에 받아올 아이디 개수
+    private final Path spillFile; // 종료 중 저장하지 못한 건을 남길 파일 (다음 기동 시 다시 저장)
+
+    private final EmotionRingBuffer<PendingEmotion> queue;
+    // 나눠주고 있는 아이디 묶음과 쓰기 스레드가 미리 받아둔 다음 묶음
+    // 그 사이 새 버킷이 열렸으면(세대가 다르면) 받아둔 아이디는 이전 버킷 범위라서 버린다.
+    private final AtomicReference<IdBlock> idBlock = new AtomicReference<>();
+    private final AtomicReference<IdBlock> spareIdBlock = new AtomicReference<>();
+
+    private final Counter rejectedCounter;
+    private final Counter writtenCounter;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public EmotionWriteBehind(
+        DataSource dataSource,
+        ApplicationEventPublisher eventPublisher,
+        EmotionBuckets buckets,
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry,
+        @Value("${emotion.ingest.mode:sync}") String mode,
+        @Value("${emotion.ingest.queue-capacity:8192}") int queueCapacity,
+        @Value("${emotion.ingest.batch-size:256}") int batchSize,
+        @Value("${emotion.ingest.flush-interval-ms:10}") long flushIntervalMillis,
+        @Value("${emotion.ingest.id-block-size:100}") int idBlockSize,
+        @Value("${emotion.ingest.spill-file:./data/ingest-spill.ndjson}") String spillFile
+    ) {
+        this.dataSource = dataSource;
+        this.eventPublisher = eventPublisher;
+        this.buckets = buckets;
+        this.objectMapper = objectMapper;
+        this.enabled = "async".equalsIgnoreCase(mode);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.idBlockSize = idBlockSize;
+        this.spillFile = Path.of(spillFile);
+        this.queue = new EmotionRingBuffer<>(queueCapacity);
+
+        this.rejectedCounter = Counter.builder("emotion.ingest.rejected")
+            .description("큐가 가득 차서 거절된 등록 건수")
+            .register(meterRegistry);
+        this.writtenCounter = Counter.builder("emotion.ingest.written")
+            .description("큐에서 DB로 저장된 등록 건수")
+            .register(meterRegistry);
+        Gauge.builder("emotion.ingest.queue.size", queue, EmotionRingBuffer::size)
+            .description("저장 대기 중인 등록 건수")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        writerThread = new Thread(this::writeLoop, "emotion-writer");
+        running = true;
+        writerThread.start();
+        logger.info("비동기 등록 시작::capacity={}, batchSize={}", queue.capacity(), batchSize);
+    }
+
+    // 정상 종료 시 큐에 남은 건을 모두 저장하고 종료
+    @PreDestroy
+    public void stop() {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("비동기 등록 종료::remaining={}", queue.size());
+    }
+
+    // 큐에 등록 요청을 넣고 아이디를 반환 (큐가 가득 찼거나 종료 중이면 -1)
+    public long enqueue(String content, String subject) throws SQLException {
+        if (!running) {
+            rejectedCounter.increment();
+            return -1;
+        }
+
+        // 아이디와 등록 시각을 같은 버킷 구간 안에서 정한다. (새 버킷이 열린 뒤의 등록 시각이 이전 버킷 아이디에 붙지 않도록)
+        buckets.acquireInsertLock();
+        try {
+            long id = nextId();
+            if (!queue.offer(new PendingEmotion(id, content, subject, new Timestamp(System.currentTimeMillis())))) {
+                rejectedCounter.increment();
+                return -1;
+            }
+            return id;
+        } finally {
+            buckets.releaseInsertLock();
+        }
+    }
+
+    // 미리 받아둔 아이디를 락 없이 나눠준다. (acquireInsertLock() 을 잡고 호출하므로 그 사이 버킷 세대는 바뀌지 않는다)
+    // 지금 묶음을 다 쓰면 쓰기 스레드가 미리 받아둔 묶음으로 바꾸고, 그것도 없으면 이번 한 건만 시퀀스에서 받은 뒤 쓰기 스레드에 채우기를 맡긴다.
+    private long nextId() throws SQLException {
+        long generation = buckets.generation();
+        while (true) {
+            IdBlock block = idBlock.get();
+            if (block != null && block.generation() == generation) {
+                long id = block.next();
+                if (id >= 0) {
+                    return id;
+                }
+            }
+
+            IdBlock spare = spareIdBlock.getAndSet(null);
+            LockSupport.unpark(writerThread);
+            if (spare == null || spare.generation() != generation) {
+                return fetchIds(1)[0];
+            }
+            // 다른 스레드가 먼저 바꿨으면 이 묶음은 버린다. (아이디 사이가 비어도 문제없다)
+            idBlock.compareAndSet(block, spare);
+        }
+    }
+
+    // 다음 묶음을 미리 받아둔다. (쓰기 스레드에서 호출, 없거나 이전 버킷 세대의 묶음이면)
+    // 세대를 먼저 읽고 받아오므로, 그 사이 새 버킷이 열려도 새 버킷 아이디가 이전 세대로 표시될 뿐 반대로 되지는 않는다.
+    private void refillIds() {
+        long generation = buckets.generation();
+        IdBlock spare = spareIdBlock.get();
+        if (spare != null && spare.generation() == generation) {
+            return;
+        }
+        try {
+            spareIdBlock.set(new IdBlock(generation, fetchIds(idBlockSize), new AtomicInteger()));
+        } catch (SQLException e) {
+            logger.error("비동기 등록 아이디 받기 실패::{}", e.getMessage());
+        }
+    }
+
+    // 시퀀스에서 아이디를 count 개 받아온다.
+    private long[] fetchIds(int count) throws SQLException {
+        long[] ids = new long[count];
+        try (Connection connection = dataSource.getConnection();
+            PreparedStatement preparedStatement = connection.prepareStatement(ID_BLOCK_SQL)) {
+            preparedStatement.setInt(1, count);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                for (int i = 0; i < count && resultSet.next(); i++) {
+                    ids[i] = resultSet.getLong(1);
+                }
+            }
+        }
+        return ids;
+    }
+
+    // 쓰기 스레드 : 큐에서 batchSize 만큼 꺼내서 한 트랜잭션으로 저장, 비어 있으면 잠시 대기
+    private void writeLoop() {
+        recoverSpilled();
+
+        List<PendingEmotion> batch = new ArrayList<>(batchSize);
+        while (true) {
+            refillIds();
+
+            PendingEmotion pending;
+            while (batch.size() < batchSize && (pending = queue.poll()) != null) {
+                batch.add(pending);
+            }
+
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+                continue;
+            }
+
+            // 종료 요청을 받았고 큐도 비었으면 끝
+            if (!running) {
+                return;
+            }
+            LockSupport.parkNanos(flushIntervalNanos);
+        }
+    }
+
+    // 이미 202로 응답한 건이므로 버리지 않는다.
+    // 저장에 실패하면 간격을 늘려가며 MAX_RETRY 번까지 재시도하고, 그래도 실패하면 한 건씩 나눠 저장한 뒤 실패한 건만 파일에 남긴다.
+    private void write(List<PendingEmotion> batch) {
+        write(batch, false);
+    }
+
+    // replay : 파일에서 다시 저장하는 건 (이전 실패가 실제로는 커밋되었을 수 있으므로 처음부터 MERGE)
+    private void write(List<PendingEmotion> batch, boolean replay) {
+        long backoffMillis = INITIAL_BACKOFF_MILLIS;
+        List<PendingEmotion> stored = null;
+        for (int attempt = 1; attempt <= MAX_RETRY; attempt++) {
+            try {
+                // 앞선 시도가 실제로는 커밋되었을 수 있으므로 재시도는 MERGE(아이디가 있으면 덮어쓰기)로 저장
+                stored = insert(batch, replay || attempt > 1);
+                break;
+            } catch (Exception e) {
+                logger.error("비동기 등록 저장 실패::attempt={}, count={}, message={}", attempt, batch.size(), e.getMessage());
+                if (attempt < MAX_RETRY) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoffMillis));
+                    backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+                }
+            }
+        }
+        if (stored == null) {
+            // 잘못된 한 건 때문에 계속 재시도하면 쓰기 스레드가 멈추고 큐가 가득 차서 새 요청이 모두 429가 된다.
+            stored = writeEach(batch);
+        }
+
+        writtenCounter.increment(stored.size());
+        logger.debug("writeBehindCount::{}", stored.size());
+        // 이벤트는 저장(재시도)과 분리해서 발행한다. (리스너 오류로 이미 커밋된 건을 다시 저장하지 않도록)
+        for (PendingEmotion pending : stored) {
+            try {
+                eventPublisher.publishEvent(new EmotionChangedEvent(EmotionChangedEvent.Type.CREATED, pending.id(), pending.content(), pending.subject(), "Y", pending.regDtm().toLocalDateTime()));
+            } catch (RuntimeException e) {
+                logger.error("등록 이벤트 처리 실패::id={}, message={}", pending.id(), e.getMessage());
+            }
+        }
+    }
+
+    // 한 건씩 저장해서 저장되는 건은 살리고, 실패한 건만 파일에 남긴 뒤 다음 묶음으로 넘어간다.
+    // 데이터 오류(길이 초과, 제약 조건 위반 등)가 아니면 DB 자체의 문제이므로 남은 건은 시도하지 않고 바로 파일에 남긴다.
+    private List<PendingEmotion> writeEach(List<PendingEmotion> batch) {
+        List<PendingEmotion> stored = new ArrayList<>();
+        List<PendingEmotion> failed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingEmotion pending = batch.get(i);
+            try {
+                stored.addAll(insert(List.of(pending), true));
+            } catch (SQLDataException | SQLIntegrityConstraintViolationException e) {
+                logger.error("비동기 등록 저장 실패::id={}, message={}", pending.id(), e.getMessage());
+                failed.add(pending);
+            } catch (Exception e) {
+                logger.error("비동기 등록 저장 실패::id={}, remaining={}, message={}", pending.id(), batch.size() - i, e.getMessage());
+                failed.addAll(batch.subList(i, batch.size()));
+                break;
+            }
+        }
+        if (!failed.isEmpty()) {
+            spill(failed);
+        }
+        return stored;
+    }
+
+    // 한 트랜잭션으로 저장 (테이블별로 나눠서 INSERT, 버킷 저장소가 아니면 EMOTIONS 하나)
+    // 저장하는 동안 버킷 비우기를 막고, 저장이 늦어지는 사이 이미 비운 버킷의 건은 만료된 것이므로 저장하지 않는다.
+    // 실제로 저장한 건을 반환한다.
+    private List<PendingEmotion> insert(List<PendingEmotion> batch, boolean merge) throws SQLException {
+        buckets.acquireInsertLock();
+        try {
+            List<PendingEmotion> stored = new ArrayList<>(batch.size());
+            List<Long> expiredIds = new ArrayList<>();
+            Map<String, List<PendingEmotion>> batchByTable = new LinkedHashMap<>();
+            for (PendingEmotion pending : batch) {
+                if (buckets.isPurged(pending.id())) {
+                    expiredIds.add(pending.id());
+                    continue;
+                }
+                stored.add(pending);
+                batchByTable.computeIfAbsent(buckets.tableOf(pending.id()), table -> new ArrayList<>()).add(pending);
+            }
+            if (!expiredIds.isEmpty()) {
+                logger.warn("비동기 등록 저장 전 만료::ids={}", expiredIds);
+            }
+
+            insert(batchByTable, merge);
+            return stored;
+        } finally {
+            buckets.releaseInsertLock();
+        }
+    }
+
+    private void insert(Map<String, List<PendingEmotion>> batchByTable, boolean merge) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (Map.Entry<String, List<PendingEmotion>> tableBatch : batchByTable.entrySet()) {
+                    String sql = (merge ? "MERGE INTO " : "INSERT INTO ") + tableBatch.getKey() + " (ID, CONTENT, SUBJECT, REG_DTM)"
+                        + (merge ? " KEY (ID)" : "") + " VALUES (?, ?, ?, ?)";
+                    try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                        for (PendingEmotion pending : tableBatch.getValue()) {
+                            preparedStatement.setLong(1, pending.id());
+                            preparedStatement.setString(2, pending.content());
+                            preparedStatement.setString(3, pending.subject());
+                            preparedStatement.setTimestamp(4, pending.regDtm());
+                            preparedStatement.addBatch();
+                        }
+                        preparedStatement.executeBatch();
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // 저장하지 못한 건을 파일에 한 줄씩(NDJSON) 덧붙인다.
+    private void spill(List<PendingEmotion> batch) {
+        try {
+            Files.createDirectories(spillFile.toAbsolutePath().getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (PendingEmotion pending : batch) {
+                    Map<String, Object> line = new LinkedHashMap<>();
+                    line.put("id", pending.id());
+                    line.put("content", pending.content());
+                    line.put("subject", pending.subject());
+                    line.put("regDtm", pending.regDtm().getTime());
+                    writer.write(objectMapper.writeValueAsString(line));
+                    writer.newLine();
+                }
+            }
+            logger.warn("비동기 등록 파일 보관::file={}, count={}", spillFile, batch.size());
+        } catch (IOException e) {
+            List<Long> ids = new ArrayList<>();
+            for (PendingEmotion pending : batch) {
+                ids.add(pending.id());
+            }
+            logger.error("비동기 등록 파일 보관 실패::ids={}, message={}", ids, e.getMessage());
+        }
+    }
+
+    // 지난 종료 때 파일에 남긴 건을 다시 저장한다. (모두 저장한 뒤 파일 삭제)
+    // 다시 저장하는 중에 종료되어 새로 남기는 건과 섞이지 않도록 파일을 옮겨 두고 읽는다.
+    private void recoverSpilled() {
+        Path replayFile = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+        try {
+            if (!Files.exists(replayFile)) {
+                if (!Files.exists(spillFile)) {
+                    return;
+                }
+                Files.move(spillFile, replayFile);
+            }
+        } catch (IOException e) {
+            logger.error("비동기 등록 파일 읽기 실패::file={}, message={}", spillFile, e.getMessage());
+            return;
+        }
+
+        List<PendingEmotion> spilled = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                JsonNode node = objectMapper.readTree(line);
+                spilled.add(new PendingEmotion(
+                    node.get("id").asLong(),
+                    node.get("content").asText(),
+                    node.get("subject").isNull() ? null : node.get("subject").asText(),
+                    new Timestamp(node.get("regDtm").asLong())));
+            }
+        } catch (IOException e) {
+            logger.error("비동기 등록 파일 읽기 실패::file={}, message={}", replayFile, e.getMessage());
+            return;
+        }
+
+        logger.info("비동기 등록 파일 복구::file={}, count={}", replayFile, spilled.size());
+        for (int from = 0; from < spilled.size(); from += batchSize) {
+            write(spilled.subList(from, Math.min(spilled.size(), from + batchSize)), true);
+        }
+        try {
+            Files.delete(replayFile);
+        } catch (IOException e) {
+            logger.error("비동기 등록 파일 삭제 실패::file={}, message={}", replayFile, e.getMessage());
+        }
+    }
+}
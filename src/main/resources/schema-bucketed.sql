@@ -0,0 +1,19 @@
+-- 시간 구간(버킷)별 저장 스키마 (bucketed 프로필, EmotionBuckets)
+-- 감정을 EMOTIONS_B0 ~ EMOTIONS_B7 에 돌아가며 나눠 담고, 만료된 버킷은 TRUNCATE 로 통째로 비운다.
+-- 버킷 테이블(EmotionBuckets.SLOTS 개)과 조회용 뷰 EMOTIONS 는 기동 시 EmotionBuckets 가 만든다.
+
+-- 아이디 시퀀스 (모든 버킷이 같이 사용해서 아이디가 버킷 순서대로 늘어난다)
+CREATE SEQUENCE IF NOT EXISTS EMOTIONS_ID_SEQ;
+
+-- 열려 있는 버킷 (SLOT : 버킷 테이블 번호, FIRST_ID 이상의 아이디가 담긴다)
+CREATE TABLE IF NOT EXISTS EMOTION_BUCKETS (
+    SLOT INT PRIMARY KEY COMMENT '버킷 테이블 번호',
+    FIRST_ID BIGINT NOT NULL COMMENT '첫 아이디',
+    OPENED_AT TIMESTAMP NOT NULL COMMENT '버킷을 연 일시'
+);
+COMMENT ON TABLE EMOTION_BUCKETS IS '감정 버킷 테이블';
+
+-- 처음 만들 때는 EMOTIONS_B0 부터 쓴다.
+INSERT INTO EMOTION_BUCKETS (SLOT, FIRST_ID, OPENED_AT)
+SELECT 0, 0, LOCALTIMESTAMP
+WHERE NOT EXISTS (SELECT 1 FROM EMOTION_BUCKETS);
@@ -1,11 +1,23 @@
-DROP TABLE IF EXISTS EMOTIONS;
+-- 파일 DB(prod 프로필)에서는 재시작해도 데이터가 남아 있어야 하므로 지우고 다시 만들지 않고, 없을 때만 만든다.
 
-CREATE TABLE EMOTIONS (
-    ID BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '아이디',
+-- 아이디 시퀀스 (비동기 등록 시 INSERT 전에 아이디를 미리 받아두기 위해 사용)
+CREATE SEQUENCE IF NOT EXISTS EMOTIONS_ID_SEQ;
+
+CREATE TABLE IF NOT EXISTS EMOTIONS (
+    ID BIGINT DEFAULT (NEXT VALUE FOR EMOTIONS_ID_SEQ) PRIMARY KEY COMMENT '아이디',
     CONTENT TEXT NOT NULL COMMENT '내용',
     SUBJECT VARCHAR(100) COMMENT '주제',
     USE_YN CHAR(1) DEFAULT 'Y' COMMENT '사용여부',
     REG_DTM TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '등록 일시',
     MODI_DTM TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '수정 일시'
 );
-COMMENT ON TABLE EMOTIONS IS '감정 테이블';
\ No newline at end of file
+COMMENT ON TABLE EMOTIONS IS '감정 테이블';
+
+-- 만료 데이터 정리용 인덱스 (논리 삭제: USE_YN + REG_DTM, 물리 삭제: REG_DTM + ID)
+CREATE INDEX IF NOT EXISTS IDX_EMOTIONS_USE_YN_REG_DTM ON EMOTIONS (USE_YN, REG_DTM);
+
+-- 커서 페이징용 인덱스 (정렬 컬럼 + ID)
+-- ID 정렬은 기본키, CONTENT는 TEXT(CLOB) 타입이라 인덱스를 만들 수 없다.
+CREATE INDEX IF NOT EXISTS IDX_EMOTIONS_REG_DTM_ID ON EMOTIONS (REG_DTM, ID);
+CREATE INDEX IF NOT EXISTS IDX_EMOTIONS_MODI_DTM_ID ON EMOTIONS (MODI_DTM, ID);
+CREATE INDEX IF NOT EXISTS IDX_EMOTIONS_SUBJECT_ID ON EMOTIONS (SUBJECT, ID);
\ No newline at end of file
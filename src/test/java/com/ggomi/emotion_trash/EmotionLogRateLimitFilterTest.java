@@ -0,0 +1,86 @@
+package com.ggomi.emotion_trash;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+class EmotionLogRateLimitFilterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private ListAppender<ILoggingEvent> appender;
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        LoggerContext loggerContext = new LoggerContext();
+
+        EmotionLogRateLimitFilter filter = new EmotionLogRateLimitFilter();
+        filter.setContext(loggerContext);
+        filter.setPermitsPerSecond(2);
+        filter.clock = now::get;
+        filter.start();
+        loggerContext.addTurboFilter(filter);
+
+        appender = new ListAppender<>();
+        appender.setContext(loggerContext);
+        appender.start();
+
+        logger = loggerContext.getLogger(EmotionTrashContorller.class);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+    }
+
+    @Test
+    void levelCheckDoesNotRecurse() {
+        assertThat(logger.isInfoEnabled()).isTrue();
+        assertThat(logger.isDebugEnabled()).isFalse();
+    }
+
+    @Test
+    void dropsInfoLogsOverLimitAndReportsNextSecond() {
+        for (int i = 0; i < 5; i++) {
+            logger.info("감정 정보 등록 요청 수신::{}", i);
+        }
+        assertThat(appender.list).hasSize(2);
+
+        now.set(2_000);
+        logger.info("다음 1초");
+
+        List<ILoggingEvent> events = appender.list;
+        assertThat(events).hasSize(4);
+        assertThat(events.get(2).getLevel()).isEqualTo(Level.WARN);
+        assertThat(events.get(2).getFormattedMessage()).isEqualTo("로그 수 제한으로 버린 로그::3");
+        assertThat(events.get(3).getFormattedMessage()).isEqualTo("다음 1초");
+    }
+
+    @Test
+    void disabledLevelsAreNotCounted() {
+        for (int i = 0; i < 5; i++) {
+            logger.debug("남지 않는 로그::{}", i);
+        }
+        logger.info("첫 번째");
+        logger.info("두 번째");
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly("첫 번째", "두 번째");
+    }
+
+    @Test
+    void warnAndErrorAreNotLimited() {
+        for (int i = 0; i < 5; i++) {
+            logger.warn("경고::{}", i);
+        }
+        logger.error("오류");
+
+        assertThat(appender.list).hasSize(6);
+    }
+}
@@ -0,0 +1,124 @@
+package com.ggomi.emotion_trash;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.ggomi.emotion_trash.EmotionQueries.Order;
+import com.ggomi.emotion_trash.EmotionQueries.Seek;
+import com.ggomi.emotion_trash.EmotionQueries.SortColumn;
+
+class EmotionQueriesTest {
+
+    private static final String SELECT = "SELECT " + Emotion.COLUMNS + " FROM EMOTIONS WHERE 1=1";
+
+    @Test
+    void parseSortReadsColumnAndDirection() {
+        assertThat(EmotionQueries.parseSort("reg_dtm,desc")).containsExactly(new Order(SortColumn.REG_DTM, true));
+        assertThat(EmotionQueries.parseSort(null)).isEmpty();
+        assertThat(EmotionQueries.parseSort(" ")).isEmpty();
+    }
+
+    @Test
+    void parseSortWithoutCommaDefaultsToAsc() {
+        assertThat(EmotionQueries.parseSort("ID")).containsExactly(new Order(SortColumn.ID, false));
+    }
+
+    @Test
+    void parseSortRejectsDirectionWithoutComma() {
+        assertThatThrownBy(() -> EmotionQueries.parseSort("REG_DTM DESC"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageStartingWith("정렬 컬럼(sort)은");
+    }
+
+    @Test
+    void parseSortRejectsUnknownColumn() {
+        assertThatThrownBy(() -> EmotionQueries.parseSort("PASSWORD,ASC"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageStartingWith("정렬 컬럼(sort)은");
+    }
+
+    @Test
+    void parseSortRejectsBadDirection() {
+        assertThatThrownBy(() -> EmotionQueries.parseSort("ID,UP"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("정렬 방향(sort)은 ASC 또는 DESC만 가능합니다.");
+        assertThatThrownBy(() -> EmotionQueries.parseSort("ID,ASC,DESC"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("정렬 방향(sort)은 ASC 또는 DESC만 가능합니다.");
+    }
+
+    @Test
+    void parseSortRejectsMultipleColumns() {
+        assertThatThrownBy(() -> EmotionQueries.parseSort("ID,ASC;SUBJECT"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("정렬 방향(sort)은 ASC 또는 DESC만 가능합니다.");
+        assertThatThrownBy(() -> EmotionQueries.parseSort("ID;SUBJECT"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageStartingWith("정렬 컬럼(sort)은");
+    }
+
+    @Test
+    void findAllEndsWithIdTieBreaker() {
+        assertThat(EmotionQueries.findAll("EMOTIONS", 0, List.of(new Order(SortColumn.SUBJECT, false))))
+            .isEqualTo(SELECT + " ORDER BY SUBJECT ASC, ID DESC LIMIT ? OFFSET ?");
+        assertThat(EmotionQueries.findAll("EMOTIONS", EmotionQueries.FILTER_USE_YN, List.of(new Order(SortColumn.ID, false))))
+            .isEqualTo(SELECT + " AND USE_YN = ? ORDER BY ID ASC LIMIT ? OFFSET ?");
+    }
+
+    @Test
+    void cursorSeekOnNullableColumnAscending() {
+        Order order = new Order(SortColumn.SUBJECT, false);
+
+        // NULL은 맨 앞이므로 값이 있는 행 다음에는 NULL이 나오지 않는다.
+        assertThat(EmotionQueries.findAllByCursor("EMOTIONS", 0, order, Seek.VALUE))
+            .isEqualTo(SELECT + " AND (SUBJECT >= ? AND (SUBJECT, ID) > (?, ?))"
+                + " ORDER BY SUBJECT ASC NULLS FIRST, ID ASC LIMIT ?");
+        // NULL 다음에는 남은 NULL과 값이 있는 행 전체가 나온다.
+        assertThat(EmotionQueries.findAllByCursor("EMOTIONS", 0, order, Seek.NULL_VALUE))
+            .isEqualTo(SELECT + " AND ((SUBJECT IS NULL AND ID > ?) OR SUBJECT IS NOT NULL)"
+                + " ORDER BY SUBJECT ASC NULLS FIRST, ID ASC LIMIT ?");
+    }
+
+    @Test
+    void cursorSeekOnNullableColumnDescending() {
+        Order order = new Order(SortColumn.SUBJECT, true);
+
+        // NULL은 맨 뒤이므로 값이 있는 행 다음에도 NULL이 남아 있다.
+        assertThat(EmotionQueries.findAllByCursor("EMOTIONS", 0, order, Seek.VALUE))
+            .isEqualTo(SELECT + " AND ((SUBJECT <= ? AND (SUBJECT, ID) < (?, ?)) OR SUBJECT IS NULL)"
+                + " ORDER BY SUBJECT DESC NULLS LAST, ID DESC LIMIT ?");
+        assertThat(EmotionQueries.findAllByCursor("EMOTIONS", 0, order, Seek.NULL_VALUE))
+            .isEqualTo(SELECT + " AND SUBJECT IS NULL AND ID < ?"
+                + " ORDER BY SUBJECT DESC NULLS LAST, ID DESC LIMIT ?");
+    }
+
+    @Test
+    void cursorSeekOnIdAndNotNullColumn() {
+        assertThat(EmotionQueries.findAllByCursor("EMOTIONS_B1", 0, new Order(SortColumn.ID, true), Seek.VALUE))
+            .isEqualTo("SELECT " + Emotion.COLUMNS + " FROM EMOTIONS_B1 WHERE 1=1 AND ID < ? ORDER BY ID DESC LIMIT ?");
+        assertThat(EmotionQueries.findAllByCursor("EMOTIONS", 0, new Order(SortColumn.REG_DTM, false), Seek.VALUE))
+            .isEqualTo(SELECT + " AND (REG_DTM >= ? AND (REG_DTM, ID) > (?, ?))"
+                + " ORDER BY REG_DTM ASC NULLS FIRST, ID ASC LIMIT ?");
+    }
+
+    @Test
+    void exportUsesLikeFiltersInIdOrder() {
+        int filters = EmotionQueries.filters(null, "감정", " ", "Y");
+
+        assertThat(filters).isEqualTo(EmotionQueries.FILTER_CONTENT | EmotionQueries.FILTER_USE_YN);
+        assertThat(EmotionQueries.export("EMOTIONS", filters))
+            .isEqualTo(SELECT + " AND CONTENT LIKE '%' || ? || '%' ESCAPE '\\' AND USE_YN = ? ORDER BY ID");
+        assertThat(EmotionQueries.export("EMOTIONS_B3", 0))
+            .isEqualTo("SELECT " + Emotion.COLUMNS + " FROM EMOTIONS_B3 WHERE 1=1 ORDER BY ID");
+    }
+
+    @Test
+    void escapeLikeKeepsWildcardsLiteral() {
+        assertThat(EmotionQueries.escapeLike("100%_완료\\")).isEqualTo("100\\%\\_완료\\\\");
+        assertThat(EmotionQueries.escapeLike("감정")).isEqualTo("감정");
+    }
+}
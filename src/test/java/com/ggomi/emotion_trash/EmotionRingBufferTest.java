@@ -0,0 +1,138 @@
+package com.ggomi.emotion_trash;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class EmotionRingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        assertThat(new EmotionRingBuffer<>(1).capacity()).isEqualTo(2);
+        assertThat(new EmotionRingBuffer<>(5).capacity()).isEqualTo(8);
+        assertThat(new EmotionRingBuffer<>(8).capacity()).isEqualTo(8);
+        assertThat(new EmotionRingBuffer<>(1000).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void rejectsCapacityAboveLimit() {
+        assertThatThrownBy(() -> new EmotionRingBuffer<>(EmotionRingBuffer.MAX_CAPACITY + 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void pollsInOfferOrder() {
+        EmotionRingBuffer<Integer> queue = new EmotionRingBuffer<>(4);
+        // 여러 바퀴를 돌아도 순서가 유지되어야 한다.
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 3; i++) {
+                assertThat(queue.offer(round * 10 + i)).isTrue();
+            }
+            assertThat(queue.size()).isEqualTo(3);
+            for (int i = 0; i < 3; i++) {
+                assertThat(queue.poll()).isEqualTo(round * 10 + i);
+            }
+        }
+    }
+
+    @Test
+    void offerReturnsFalseWhenFull() {
+        EmotionRingBuffer<String> queue = new EmotionRingBuffer<>(2);
+        assertThat(queue.offer("a")).isTrue();
+        assertThat(queue.offer("b")).isTrue();
+        assertThat(queue.offer("c")).isFalse();
+        assertThat(queue.size()).isEqualTo(2);
+
+        assertThat(queue.poll()).isEqualTo("a");
+        assertThat(queue.offer("c")).isTrue();
+    }
+
+    @Test
+    void smallestQueueDoesNotOverwrite() {
+        EmotionRingBuffer<String> queue = new EmotionRingBuffer<>(1);
+        assertThat(queue.offer("a")).isTrue();
+        assertThat(queue.offer("b")).isTrue();
+        assertThat(queue.offer("c")).isFalse();
+        assertThat(queue.poll()).isEqualTo("a");
+        assertThat(queue.poll()).isEqualTo("b");
+    }
+
+    @Test
+    void pollReturnsNullWhenEmpty() {
+        EmotionRingBuffer<String> queue = new EmotionRingBuffer<>(2);
+        assertThat(queue.poll()).isNull();
+
+        queue.offer("a");
+        queue.poll();
+        assertThat(queue.poll()).isNull();
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void concurrentProducersAndConsumersLoseAndDuplicateNothing() throws Exception {
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 50_000;
+        EmotionRingBuffer<Integer> queue = new EmotionRingBuffer<>(64);
+        ConcurrentHashMap<Integer, Boolean> received = new ConcurrentHashMap<>();
+        AtomicInteger duplicates = new AtomicInteger();
+        AtomicInteger remaining = new AtomicInteger(producers * perProducer);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = base; i < base + perProducer; i++) {
+                        // 가득 차 있으면 꺼내는 쪽이 비울 때까지 다시 시도
+                        while (!queue.offer(i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int c = 0; c < consumers; c++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    while (remaining.get() > 0) {
+                        Integer value = queue.poll();
+                        if (value == null) {
+                            Thread.onSpinWait();
+                            continue;
+                        }
+                        if (received.put(value, Boolean.TRUE) != null) {
+                            duplicates.incrementAndGet();
+                        }
+                        remaining.decrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(duplicates.get()).isZero();
+        assertThat(received).hasSize(producers * perProducer);
+        assertThat(queue.poll()).isNull();
+    }
+}
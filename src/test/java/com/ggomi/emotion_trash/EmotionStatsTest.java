@@ -0,0 +1,127 @@
+package com.ggomi.emotion_trash;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class EmotionStatsTest {
+
+    private final EmotionStats stats = new EmotionStats(null, true, 60, 24, 30);
+
+    @Test
+    void countsCreatedUpdatedAndPurged() {
+        stats.onChanged(created(1, "a", "기쁨"));
+        stats.onChanged(created(2, "b", "기쁨"));
+        stats.onChanged(new EmotionChangedEvent(EmotionChangedEvent.Type.PATCHED, 2, null, "슬픔", null));
+        stats.onChanged(new EmotionChangedEvent(EmotionChangedEvent.Type.DELETED, 1, null, null, "N"));
+        stats.onChanged(new EmotionChangedEvent(EmotionChangedEvent.Type.PURGED, 3, null, null, "N"));
+
+        assertThat(stats.subjectCounts(null)).containsExactly(
+            Map.of("subject", "기쁨", "activeCount", 0L, "inactiveCount", 1L),
+            Map.of("subject", "슬픔", "activeCount", 1L, "inactiveCount", 0L));
+
+        stats.onChanged(new EmotionChangedEvent(EmotionChangedEvent.Type.PURGED, 1, null, null, "N"));
+        assertThat(stats.subjectCounts("기쁨")).isEmpty();
+    }
+
+    @Test
+    void bucketPurgeDropsRangeAndIgnoresLateCreates() {
+        stats.onChanged(created(1, "a", "기쁨"));
+        stats.onChanged(created(2, "b", "슬픔"));
+        stats.onChanged(created(5, "c", "기쁨"));
+        stats.onBucketPurged(new EmotionBucketPurgedEvent(0, 2));
+
+        // 비운 범위의 등록 이벤트가 늦게 와도 다시 세지 않는다.
+        stats.onChanged(created(2, "b", "슬픔"));
+
+        assertThat(stats.subjectCounts(null)).containsExactly(
+            Map.of("subject", "기쁨", "activeCount", 1L, "inactiveCount", 0L));
+    }
+
+    @Test
+    void changesBeforeCreateAreAppliedWhenCreateArrives() {
+        LocalDateTime regDtm = LocalDateTime.now().minusDays(3);
+        // 다른 요청 스레드의 등록 이벤트보다 수정/삭제 이벤트가 먼저 도착한 경우
+        stats.onChanged(new EmotionChangedEvent(EmotionChangedEvent.Type.PATCHED, 1, null, "슬픔", null));
+        stats.onChanged(new EmotionChangedEvent(EmotionChangedEvent.Type.DELETED, 1, null, "슬픔", "N"));
+        assertThat(stats.subjectCounts(null)).isEmpty();
+
+        stats.onChanged(new EmotionChangedEvent(EmotionChangedEvent.Type.CREATED, 1, "a", "기쁨", "Y", regDtm));
+
+        assertThat(stats.subjectCounts(null)).containsExactly(
+            Map.of("subject", "슬픔", "activeCount", 0L, "inactiveCount", 1L));
+        // 구간은 받은 시각이 아니라 등록 시각 기준
+        assertThat(stats.bucketCounts(EmotionStats.Granularity.DAY, regDtm, regDtm, null)).hasSize(1);
+        assertThat(stats.bucketCounts(EmotionStats.Granularity.DAY, LocalDateTime.now(), LocalDateTime.now(), null)).isEmpty();
+    }
+
+    @Test
+    void concurrentChangesKeepCountsConsistent() throws Exception {
+        int threads = 8;
+        int perThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long base = (long) t * perThread;
+                futures.add(executor.submit(() -> {
+                    for (long id = base; id < base + perThread; id++) {
+                        stats.onChanged(created(id, "c", "기쁨"));
+                        // 같은 아이디를 다른 스레드도 바꾸도록 섞는다.
+                        long other = (id * 7) % (threads * perThread);
+                        stats.onChanged(new EmotionChangedEvent(EmotionChangedEvent.Type.PATCHED, other, null, "슬픔", null));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long total = 0;
+        for (Map<String, Object> count : stats.subjectCounts(null)) {
+            total += (long) count.get("activeCount") + (long) count.get("inactiveCount");
+        }
+        assertThat(total).isEqualTo((long) threads * perThread);
+
+        long bucketTotal = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (Map<String, Object> count : stats.bucketCounts(EmotionStats.Granularity.DAY, now.minusDays(1), now, null)) {
+            bucketTotal += (long) count.get("activeCount") + (long) count.get("inactiveCount");
+        }
+        assertThat(bucketTotal).isEqualTo(total);
+    }
+
+    @Test
+    void retentionIsNotShorterThanDefaultRange() {
+        LocalDateTime now = LocalDateTime.now();
+        EmotionStats.Granularity minute = EmotionStats.Granularity.MINUTE;
+        EmotionStats shortRetention = new EmotionStats(null, true, 1, 1, 1);
+
+        assertThat(shortRetention.retainedFrom(minute)).isBeforeOrEqualTo(minute.defaultFrom(minute.truncate(now)));
+    }
+
+    @Test
+    void pruneKeepsRetainedBuckets() {
+        stats.onChanged(created(1, "a", "기쁨"));
+        stats.prune();
+
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(stats.bucketCounts(EmotionStats.Granularity.MINUTE, now.minusMinutes(1), now, null)).hasSize(1);
+    }
+
+    private static EmotionChangedEvent created(long id, String content, String subject) {
+        return new EmotionChangedEvent(EmotionChangedEvent.Type.CREATED, id, content, subject, "Y", LocalDateTime.now());
+    }
+}